@@ -0,0 +1,82 @@
+package com.redmath.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.redmath.Config.CachingJwtDecoder;
+import org.redmath.Config.SecurityConfig;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Token issue and verification, with and without the verified-token cache. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final byte[] KEY = "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8);
+
+    private final SecurityConfig config = new SecurityConfig();
+    private JwtEncoder encoder;
+    private JwtDecoder nimbus;
+    private JwtDecoder cached;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        encoder = config.jwtEncoder(KEY);
+        nimbus = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(KEY, "HmacSHA256")).build();
+        cached = new CachingJwtDecoder(nimbus, 10_000, new SimpleMeterRegistry());
+        authentication = new UsernamePasswordAuthenticationToken("talha", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = config.generateJwtToken(authentication, encoder);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return config.generateJwtToken(authentication, encoder);
+    }
+
+    @Benchmark
+    public Jwt decodeNimbus() {
+        return nimbus.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cached.decode(token);
+    }
+
+    /** BCrypt at the strength used by SecurityConfig.passwordEncoder(); in milliseconds, not microseconds. */
+    @State(Scope.Benchmark)
+    public static class Passwords {
+        final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        final String hash = bcrypt.encode("1234");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String bcryptEncode(Passwords passwords) {
+        return passwords.bcrypt.encode("1234");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches(Passwords passwords) {
+        return passwords.bcrypt.matches("1234", passwords.hash);
+    }
+}
@@ -0,0 +1,74 @@
+package com.redmath.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Model.ContactPage;
+import org.redmath.Repository.ContactRep;
+import org.redmath.Service.ListService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact listing at different table sizes: the raw repository scan (database plus
+ * entity hydration), the cached service call and one keyset page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactListBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext app;
+    private ContactRep repo;
+    private ListService list;
+
+    @Setup(Level.Trial)
+    public void start() {
+        app = new SpringApplicationBuilder(Main.class).run(
+                "--server.port=0",
+                "--dburl=jdbc:h2:mem:jmh-" + rows,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        repo = app.getBean(ContactRep.class);
+        list = app.getBean(ListService.class);
+        List<Contact> batch = new ArrayList<>(1000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Contact("Contact " + (char) ('A' + i % 26), String.valueOf(3_000_000_000L + i)));
+            if (batch.size() == 1000) {
+                repo.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repo.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<Contact> repositoryFindAll() {
+        return repo.findAll();
+    }
+
+    @Benchmark
+    public List<Contact> serviceGetAllContacts() {
+        return list.getAllContacts();
+    }
+
+    @Benchmark
+    public ContactPage firstPageByName() {
+        return list.getContactPage("name", null, 50);
+    }
+}
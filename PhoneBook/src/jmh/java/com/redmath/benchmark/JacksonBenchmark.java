@@ -0,0 +1,92 @@
+package com.redmath.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.redmath.Model.Contact;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the /api/getContacts payload in each negotiable format.
+ * {@code payloadSize} encodes the list once and reports its size as the secondary result
+ * {@code payloadBytes}, so sizes per format land in the same JSON results as the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private List<Contact> contacts;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        contacts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Contact contact = new Contact("Contact Number " + i, String.valueOf(3_000_000_000L + i));
+            contact.setId(i + 1);
+            contact.setEmail("contact" + i + "@example.com");
+            contacts.add(contact);
+        }
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper mapper = new ObjectMapper(factory);
+        TypeReference<List<Contact>> type = new TypeReference<>() { };
+        writer = mapper.writerFor(type);
+        reader = mapper.readerFor(type);
+        encoded = writer.writeValueAsBytes(contacts);
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws Exception {
+        return writer.writeValueAsBytes(contacts);
+    }
+
+    // A single operation, so the summed event counter is exactly one payload; its time is not a measurement
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public void payloadSize(Payload payload) throws Exception {
+        payload.payloadBytes = writer.writeValueAsBytes(contacts).length;
+    }
+
+    @Benchmark
+    public void serializeToStream() throws Exception {
+        writer.writeValue(OutputStream.nullOutputStream(), contacts);
+    }
+
+    @Benchmark
+    public List<Contact> deserialize() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long payloadBytes;
+    }
+}
@@ -0,0 +1,56 @@
+package com.redmath.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.redmath.Config.SecurityConfig;
+import org.redmath.Model.TokenResponse;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the login success body: a new ObjectMapper and Map per response (the old
+ * handler) against the shared writer and record. Run with {@code -prof gc} to compare
+ * bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginResponseBenchmark {
+
+    // Same shape and length as a real HS256 token for a single-role user
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9." + "x".repeat(120) + "." + "y".repeat(43);
+
+    private MockHttpServletResponse response;
+
+    // A fresh response each time: writing commits it, and its allocation stays out of the measurement
+    @Setup(Level.Invocation)
+    public void newResponse() {
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse newMapperPerResponse() throws Exception {
+        Map<String, Object> body = Map.of(
+                "token_type", "Bearer",
+                "access_token", TOKEN,
+                "expires_in", 3600,
+                "email", "talha");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.getWriter().write(new ObjectMapper().writeValueAsString(body));
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse sharedWriter() throws Exception {
+        SecurityConfig.writeJson(response, HttpServletResponse.SC_OK, TokenResponse.bearer(TOKEN, 3600, "talha"));
+        return response;
+    }
+}
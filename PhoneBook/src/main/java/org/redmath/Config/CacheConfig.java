@@ -0,0 +1,60 @@
+package org.redmath.Config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.redmath.Model.ContactPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Read caches for contact listings. Entries are weighed by the number of contacts
+ * they hold, so the bound is on cached rows rather than on cached responses.
+ * The user cache is a plain TTL cache for login lookups. Hit/miss/eviction metrics
+ * are published by Actuator under {@code cache.*}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String CONTACTS = "contacts";
+    public static final String CONTACT_PAGES = "contactPages";
+
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${phonebook.cache.contacts.max-rows:1000000}") long maxRows,
+                                     @Value("${phonebook.users.cache.enabled:true}") boolean usersEnabled,
+                                     @Value("${phonebook.users.cache.ttl:5m}") Duration usersTtl,
+                                     @Value("${phonebook.users.cache.max-size:10000}") long usersMaxSize) {
+        CaffeineCacheManager manager = new CaffeineCacheManager(CONTACTS, CONTACT_PAGES);
+        manager.setAllowNullValues(false);
+        manager.setCaffeine(Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher(CacheConfig::weigh)
+                .recordStats());
+        // Left unregistered when disabled; UserService then goes to the database every time
+        if (usersEnabled) {
+            manager.registerCustomCache(USERS, Caffeine.newBuilder()
+                    .expireAfterWrite(usersTtl)
+                    .maximumSize(usersMaxSize)
+                    .recordStats()
+                    .build());
+        }
+        return manager;
+    }
+
+    private static int weigh(Object key, Object value) {
+        if (value instanceof Collection<?> rows) {
+            return rows.size() + 1;
+        }
+        if (value instanceof ContactPage page) {
+            return page.contacts().size() + 1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,84 @@
+package org.redmath.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers tokens that already passed signature and claim validation, keyed by a
+ * SHA-256 digest of the token so raw bearer tokens are never held in memory. An
+ * entry lives until the token's {@code exp} at the latest; tokens without an expiry
+ * are verified every time. Failed verifications are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> verified;
+    private final Timer verification;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxSize, MeterRegistry registry) {
+        this(delegate, maxSize, registry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maxSize, MeterRegistry registry, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String key, Jwt jwt) -> untilExpiry(jwt)))
+                .recordStats()
+                .build();
+        this.verification = Timer.builder("phonebook.jwt.verification")
+                .description("Time spent verifying JWTs that were not in the cache")
+                .publishPercentileHistogram()
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt");
+        Gauge.builder("phonebook.jwt.cache.hit.ratio", verified, cache -> cache.stats().hitRate())
+                .register(registry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        Jwt cached = verified.getIfPresent(key);
+        if (cached != null && cached.getExpiresAt().isAfter(clock.instant())) {
+            return cached;
+        }
+        Jwt jwt = verification.record(() -> delegate.decode(token));
+        if (jwt.getExpiresAt() != null) {
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private Duration untilExpiry(Jwt jwt) {
+        Duration remaining = Duration.between(clock.instant(), jwt.getExpiresAt());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
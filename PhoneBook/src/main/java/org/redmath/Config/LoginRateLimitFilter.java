@@ -0,0 +1,58 @@
+package org.redmath.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Throttles form login posts before the username/password filter runs, so a refused
+ * attempt costs a map lookup and never reaches BCrypt. Not a bean on purpose: it is
+ * added to the security chain only, not registered as a servlet filter as well.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final RequestMatcher LOGIN = PathPatternRequestMatcher.withDefaults()
+            .matcher(HttpMethod.POST, "/login");
+
+    private final LoginRateLimiter limiter;
+    private final Counter throttled;
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.throttled = Counter.builder("phonebook.login.throttled")
+                .description("Login attempts refused by the rate limiter")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !LOGIN.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Duration wait = limiter.tryAcquire(request.getRemoteAddr(), request.getParameter("username"));
+        if (wait.isZero()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        throttled.increment();
+        long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        SecurityConfig.writeJson(response, HttpStatus.TOO_MANY_REQUESTS.value(),
+                Map.of("error", "Too many login attempts", "message", "Try again in " + seconds + "s"));
+    }
+}
@@ -0,0 +1,138 @@
+package org.redmath.Config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for login attempts, one per username and one per client IP. Each
+ * bucket is a single {@link AtomicLong} holding the time at which it will be full
+ * again (the generic cell rate algorithm), so taking a token is one CAS and no lock.
+ * A bucket that has refilled carries no state and is dropped by the sweep. Beyond
+ * {@code maxEntries} live buckets a new key is refused for one interval rather than let
+ * through untracked, since a client rotating addresses could otherwise fill the maps and
+ * then hash without limit; a sweep is started in the background so the request thread
+ * never walks the maps, and buckets touched once are free again after one interval.
+ */
+public class LoginRateLimiter implements AutoCloseable {
+    private static final int MAX_USERNAME_LENGTH = 128;
+
+    private final Limit users;
+    private final Limit ips;
+    private final int maxEntries;
+    private final ScheduledExecutorService sweeper;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public LoginRateLimiter(int userPerMinute, int userBurst, int ipPerMinute, int ipBurst,
+                            int maxEntries, MeterRegistry registry) {
+        this.users = new Limit(userPerMinute, userBurst);
+        this.ips = new Limit(ipPerMinute, ipBurst);
+        this.maxEntries = maxEntries;
+        Gauge.builder("phonebook.login.rate.buckets", this, LoginRateLimiter::size).register(registry);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-bucket-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Takes one token from the client's IP bucket and, if a username was sent, from
+     * that user's bucket. Returns zero when the attempt may go ahead, otherwise how
+     * long until it would be allowed.
+     */
+    public Duration tryAcquire(String ip, String username) {
+        long now = System.nanoTime();
+        long wait = ips.tryAcquire(ip, now);
+        if (wait == 0 && username != null && !username.isBlank()) {
+            wait = users.tryAcquire(normalize(username), now);
+        }
+        return Duration.ofNanos(wait);
+    }
+
+    public int size() {
+        return users.buckets.size() + ips.buckets.size();
+    }
+
+    public void sweep() {
+        long now = System.nanoTime();
+        users.sweep(now);
+        ips.sweep(now);
+    }
+
+    // At most one extra sweep queued at a time, however many requests find the maps full
+    private void requestSweep() {
+        if (sweeping.compareAndSet(false, true)) {
+            try {
+                sweeper.execute(() -> {
+                    try {
+                        sweep();
+                    } finally {
+                        sweeping.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Closed
+                sweeping.set(false);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    // Case and surrounding spaces must not buy an attacker a fresh bucket
+    private static String normalize(String username) {
+        String key = username.strip().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_USERNAME_LENGTH ? key.substring(0, MAX_USERNAME_LENGTH) : key;
+    }
+
+    private final class Limit {
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final long interval;
+        final long tolerance;
+
+        Limit(int perMinute, int burst) {
+            this.interval = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            this.tolerance = interval * (burst - 1);
+        }
+
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (size() >= maxEntries) {
+                    requestSweep();
+                    return interval;
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long full = bucket.get();
+                long next = (full - now < 0 ? now : full) + interval;
+                long excess = next - now - tolerance - interval;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (bucket.compareAndSet(full, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void sweep(long now) {
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+}
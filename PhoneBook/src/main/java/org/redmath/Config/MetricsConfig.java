@@ -0,0 +1,23 @@
+package org.redmath.Config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns {@code @Timed} on service classes into timers. Every public service method is
+ * recorded under {@code phonebook.service} with {@code class} and {@code method} tags;
+ * Spring Data records repository calls under {@code spring.data.repository.invocations}.
+ * Percentiles and histograms for both are set in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "phonebook.service";
+    public static final String VALIDATION_FAILURES = "phonebook.validation.failures";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -1,5 +1,6 @@
 package org.redmath.Config;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.redmath.Model.User;
 import org.redmath.Repository.ContactRep;
@@ -28,19 +29,20 @@ public class OAuthConfig implements OAuth2UserService<OAuth2UserRequest, OAuth2U
     private ContactRep contactRep;
 
     public OAuthConfig() {
-        System.out.println("✅ OAuthConfig constructor initialized");
+        log.debug("OAuthConfig created");
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
-        System.out.println("✅ OAuthConfig LOADUSER initialized");
+        log.debug("Loading OAuth user");
 
         // Load user from Google
         OAuth2User oauth2User = new DefaultOAuth2UserService().loadUser(userRequest);
         String email = oauth2User.getAttribute("email");
         String name = oauth2User.getAttribute("name"); // 'name' is usually provided, not 'username'
 
-        System.out.println("Processing OAuth user: " + email);
+        log.debug("Processing OAuth user {}", email);
 
         // Check if user exists
         User admin = userRepo.findByEmail(email);
@@ -53,14 +55,14 @@ public class OAuthConfig implements OAuth2UserService<OAuth2UserRequest, OAuth2U
             admin.setUsername(name);
             admin.setRole("ROLE_USER"); // Default role for new users
             userRepo.save(admin);
-            System.out.println("✅ New user created: " + admin.getUsername());
+            log.debug("Created OAuth user {}", admin.getUsername());
             role = "ROLE_USER";
         } else {
-            System.out.println("✅ Admin exists: " + admin.getUsername());
+            log.debug("OAuth user {} exists", admin.getUsername());
             role = admin.getRole();
         }
 
-        System.out.println("ROLE: " + role);
+        log.debug("OAuth user role {}", role);
 
         List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
         return new DefaultOAuth2User(authorities, oauth2User.getAttributes(), "email");
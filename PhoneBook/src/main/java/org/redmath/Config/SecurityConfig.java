@@ -1,23 +1,37 @@
 package org.redmath.Config;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import jakarta.servlet.http.HttpServletResponse;
+import org.redmath.Service.PasswordHashingPool;
+import org.redmath.Service.TokenService;
 import org.redmath.Service.UserService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
@@ -27,13 +41,19 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtGra
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Configuration
 @EnableWebSecurity
@@ -48,6 +68,11 @@ import java.util.Map;
         bearerFormat = "JWT"
 )
 public class SecurityConfig {
+    // Shared and thread-safe: login responses reuse Jackson's serializer cache and buffers
+    // instead of building a new ObjectMapper per request
+    private static final ObjectWriter JSON = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .writer();
 
     private static final String[] SWAGGER_WHITELIST = {
             "/swagger-ui.html",
@@ -64,6 +89,11 @@ public class SecurityConfig {
             "/actuator",
             "/swagger-ui/index.html",
             "/api/getContacts",
+            "/api/contacts",
+            "/api/contacts/changes",
+            "/api/contacts/stream",
+            "/api/autocomplete",
+            "/api/search",
             "/login",
             "/api/saveContact",
             "/h2-console/**",
@@ -72,9 +102,23 @@ public class SecurityConfig {
             "/csrf"
     };
 
+    private static final String[] TOKEN_ENDPOINTS = {
+            "/api/token/refresh",
+            "/api/token/revoke"
+    };
+
     @Autowired
     private OAuthConfig oAuthConfig;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${phonebook.jwt.cache.max-size:10000}")
+    private long jwtCacheSize = CachingJwtDecoder.DEFAULT_MAX_SIZE;
+
+    @Value("${phonebook.jwt.access-ttl:1h}")
+    private Duration accessTtl = Duration.ofHours(1);
+
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -92,9 +136,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationSuccessHandler formLoginSuccessHandler(JwtEncoder jwtEncoder) {
-        return (request, response, authentication) -> writeJson(response,
-                tokenResponse(generateJwtToken(authentication, jwtEncoder), authentication.getName()));
+    public AuthenticationSuccessHandler formLoginSuccessHandler(TokenService tokens) {
+        return (request, response, authentication) -> writeJson(response, HttpServletResponse.SC_OK,
+                tokens.issue(authentication));
     }
 
     @Bean
@@ -106,26 +150,74 @@ public class SecurityConfig {
         };
     }
 
+    /**
+     * The only authentication provider, so failed logins are not retried against a
+     * parent manager. Password checks go through the bounded hashing pool; when it
+     * is saturated the login fails fast with 503 instead of queueing on the request thread.
+     */
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(UserService userService, PasswordHashingPool hashing) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userService) {
+            @Override
+            protected void additionalAuthenticationChecks(UserDetails user,
+                                                          UsernamePasswordAuthenticationToken authentication) {
+                try {
+                    super.additionalAuthenticationChecks(user, authentication);
+                } catch (RejectedExecutionException e) {
+                    throw new AuthenticationServiceException("Password verification is overloaded", e);
+                }
+            }
+        };
+        provider.setPasswordEncoder(hashing.asPasswordEncoder());
+        return provider;
+    }
+
     @Bean
     public AuthenticationFailureHandler formLoginFailureHandler() {
-        return (request, response, exception) -> writeJsonError(response, HttpServletResponse.SC_UNAUTHORIZED,
-                Map.of("error", "Invalid credentials", "message", exception.getMessage()));
+        return (request, response, exception) -> {
+            if (exception.getCause() instanceof RejectedExecutionException) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeJson(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                        Map.of("error", "Server busy", "message", exception.getMessage()));
+                return;
+            }
+            writeJson(response, HttpServletResponse.SC_UNAUTHORIZED,
+                    Map.of("error", "Invalid credentials", "message", exception.getMessage()));
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "phonebook.login.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public LoginRateLimiter loginRateLimiter(
+            @Value("${phonebook.login.rate-limit.user.per-minute:10}") int userPerMinute,
+            @Value("${phonebook.login.rate-limit.user.burst:10}") int userBurst,
+            @Value("${phonebook.login.rate-limit.ip.per-minute:60}") int ipPerMinute,
+            @Value("${phonebook.login.rate-limit.ip.burst:30}") int ipBurst,
+            @Value("${phonebook.login.rate-limit.max-entries:100000}") int maxEntries) {
+        return new LoginRateLimiter(userPerMinute, userBurst, ipPerMinute, ipBurst, maxEntries, registry());
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
-                                           UserService userService,
-                                           JwtEncoder jwtEncoder) throws Exception {
+                                           JwtEncoder jwtEncoder,
+                                           TokenService tokens,
+                                           ObjectProvider<LoginRateLimiter> loginRateLimiter) throws Exception {
+        loginRateLimiter.ifAvailable(limiter -> http.addFilterBefore(new LoginRateLimitFilter(limiter, registry()),
+                UsernamePasswordAuthenticationFilter.class));
         return http
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(SWAGGER_WHITELIST).permitAll()
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
-                        .requestMatchers("/api/deleteAll", "/api/deleteContact/{id}", "/api/updateContact").hasRole("ADMIN")
+                        .requestMatchers(TOKEN_ENDPOINTS).permitAll()
+                        .requestMatchers("/api/deleteAll", "/api/deleteAll/{jobId}", "/api/deleteContact/{id}",
+                                "/api/deleteContacts", "/api/updateContact", "/api/importContacts").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PATCH, "/api/contacts/{id}").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
-                        .successHandler(formLoginSuccessHandler(jwtEncoder))
+                        .successHandler(formLoginSuccessHandler(tokens))
                         .failureHandler(formLoginFailureHandler())
                 )
                 .httpBasic(config -> config.disable())
@@ -136,45 +228,41 @@ public class SecurityConfig {
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
                 )
-                .userDetailsService(userService)
                 .csrf(csrf -> csrf
                         .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
                         .csrfTokenRequestHandler(new CsrfTokenRequestAttributeHandler())
+                        // The refresh token in the body is the credential; no cookie is involved
+                        .ignoringRequestMatchers(TOKEN_ENDPOINTS)
                 )
                 .build();
     }
 
-    private String generateJwtToken(org.springframework.security.core.Authentication auth, JwtEncoder jwtEncoder) {
-        long expirySeconds = 3600;
+    public String generateJwtToken(org.springframework.security.core.Authentication auth, JwtEncoder jwtEncoder) {
+        return encodeJwt(jwtEncoder, auth.getName(),
+                auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(), accessTtl);
+    }
+
+    public static String encodeJwt(JwtEncoder jwtEncoder, String subject, Collection<String> authorities, Duration ttl) {
         JwsHeader jwsHeader = JwsHeader.with(MacAlgorithm.HS256).build();
         JwtClaimsSet jwtClaimsSet = JwtClaimsSet.builder()
-                .subject(auth.getName())
-                .claim("authorities", auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
-                .expiresAt(Instant.now().plusSeconds(expirySeconds))
+                .subject(subject)
+                .claim("authorities", List.copyOf(authorities))
+                .expiresAt(Instant.now().plus(ttl))
                 .build();
         Jwt jwt = jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, jwtClaimsSet));
         return jwt.getTokenValue();
     }
 
-    private Map<String, Object> tokenResponse(String token, String email) {
-        return Map.of(
-                "token_type", "Bearer",
-                "access_token", token,
-                "expires_in", 3600,
-                "email", email
-        );
+    private MeterRegistry registry() {
+        return meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
     }
 
-    private void writeJson(HttpServletResponse response, Map<String, Object> body) throws IOException {
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_OK);
-        response.getWriter().write(new ObjectMapper().writeValueAsString(body));
-    }
-
-    private void writeJsonError(HttpServletResponse response, int status, Map<String, Object> body) throws IOException {
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    /** Serializes {@code body} as UTF-8 straight into the response stream, with no intermediate String. */
+    public static void writeJson(HttpServletResponse response, int status, Object body) throws IOException {
         response.setStatus(status);
-        response.getWriter().write(new ObjectMapper().writeValueAsString(body));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        JSON.writeValue(response.getOutputStream(), body);
     }
 
     @Bean
@@ -184,6 +272,7 @@ public class SecurityConfig {
 
     @Bean
     public JwtDecoder jwtDecoder(@Value("${jwt.signing.key}") byte[] signingKey) {
-        return NimbusJwtDecoder.withSecretKey(new SecretKeySpec(signingKey, "HmacSHA256")).build();
+        JwtDecoder nimbus = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(signingKey, "HmacSHA256")).build();
+        return new CachingJwtDecoder(nimbus, jwtCacheSize, registry());
     }
 }
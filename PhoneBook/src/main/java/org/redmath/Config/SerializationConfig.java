@@ -0,0 +1,71 @@
+package org.redmath.Config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Binary encodings of the same Jackson model for service-to-service callers. A request
+ * with {@code Accept: application/cbor} or {@code application/x-jackson-smile} gets that
+ * encoding; anything else, browsers included, still resolves to JSON because the JSON
+ * converter comes first. Both mappers start from Boot's builder so field names, dates
+ * and modules match the JSON output exactly.
+ */
+@Configuration
+public class SerializationConfig {
+    public static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    public static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    /**
+     * The encoding a request with this {@code Accept} header will get: {@code "cbor"},
+     * {@code "smile"} or {@code null} for JSON. Mirrors the converter order above, so
+     * listings can put it in their ETag before the body is written.
+     */
+    public static String encoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> types;
+        try {
+            types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            if (type.isCompatibleWith(CBOR)) {
+                return "cbor";
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return "smile";
+            }
+        }
+        return null;
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
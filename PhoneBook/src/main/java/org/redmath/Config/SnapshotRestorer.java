@@ -0,0 +1,88 @@
+package org.redmath.Config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.engine.Constants;
+import org.h2.message.DbException;
+import org.h2.tools.DeleteDbFiles;
+import org.h2.tools.Restore;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Restores a snapshot zip over the file database before anything opens it. Runs when
+ * {@code phonebook.storage.restore-from} is set, e.g.
+ * {@code --spring.profiles.active=local,persistent --phonebook.storage.restore-from=data/snapshots/x.zip}.
+ * Registered in {@code Main} because it has to run before the application context exists.
+ */
+@Slf4j
+public class SnapshotRestorer implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ConfigurableEnvironment env = event.getEnvironment();
+        String snapshot = env.getProperty("phonebook.storage.restore-from");
+        if (snapshot == null || snapshot.isBlank()) {
+            return;
+        }
+        String database = env.getProperty("phonebook.storage.path");
+        if (database == null) {
+            throw new IllegalStateException("phonebook.storage.restore-from needs the persistent profile");
+        }
+        restore(Path.of(snapshot), Path.of(database),
+                env.getProperty("spring.datasource.username", ""), env.getProperty("spring.datasource.password", ""));
+    }
+
+    /**
+     * Replaces the database at {@code database} (path without extension) with the snapshot's
+     * contents. The snapshot is unpacked and opened in a scratch directory first; the live
+     * database is only touched once that succeeded, and then by a single rename.
+     */
+    public static void restore(Path snapshot, Path database, String user, String password) {
+        if (!Files.isRegularFile(snapshot)) {
+            throw new IllegalStateException("Snapshot not found: " + snapshot);
+        }
+        Path dir = database.toAbsolutePath().getParent();
+        String name = database.getFileName().toString();
+        String file = name + Constants.SUFFIX_MV_FILE;
+        long start = System.nanoTime();
+        Path scratch = null;
+        try {
+            Files.createDirectories(dir);
+            // Same directory as the database, so the final move stays on one file system
+            scratch = Files.createTempDirectory(dir, name + "-restore");
+            Restore.execute(snapshot.toString(), scratch.toString(), name);
+            if (!Files.isRegularFile(scratch.resolve(file))) {
+                throw new IllegalStateException("Snapshot " + snapshot + " has no database named " + name);
+            }
+            verify(scratch.resolve(name), user, password);
+            DeleteDbFiles.execute(dir.toString(), name, true);
+            Files.move(scratch.resolve(file), dir.resolve(file), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | SQLException | DbException e) {
+            throw new IllegalStateException("Cannot restore " + name + " from " + snapshot, e);
+        } finally {
+            if (scratch != null) {
+                FileSystemUtils.deleteRecursively(scratch.toFile());
+            }
+        }
+        log.info("Restored {} from {} in {} ms", name, snapshot, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void verify(Path database, String user, String password) throws SQLException {
+        String url = "jdbc:h2:file:" + database + ";IFEXISTS=TRUE;ACCESS_MODE_DATA=r";
+        try (Connection db = DriverManager.getConnection(url, user, password);
+             Statement sql = db.createStatement()) {
+            sql.execute("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES");
+        }
+    }
+}
@@ -1,30 +1,101 @@
 package org.redmath.Controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.security.PermitAll;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.redmath.Config.MetricsConfig;
+import org.redmath.Config.SerializationConfig;
 import org.redmath.Model.Contact;
+import org.redmath.Model.ContactMatch;
+import org.redmath.Model.ContactDelta;
+import org.redmath.Model.ContactPage;
+import org.redmath.Model.ContactPatch;
+import org.redmath.Model.ContactSnapshot;
+import org.redmath.Model.ImportResult;
+import org.redmath.Model.PurgeStatus;
+import org.redmath.Service.ContactChangeBroadcaster;
+import org.redmath.Service.ContactChangeLog;
+import org.redmath.Service.ContactImportService;
+import org.redmath.Service.ContactPurgeService;
+import org.redmath.Service.ContactVersion;
 import org.redmath.Service.ListService;
+import org.redmath.Service.NameIndex;
+import org.redmath.Service.PhoneIndex;
+import org.redmath.Service.TrigramIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 @Slf4j
 @CrossOrigin
 @RestController
 @RequestMapping("/api")
 public class Controller {
+    public static final String NDJSON = "application/x-ndjson";
+
     //    @Autowired
     private ListService list;
+    private final ContactImportService importer;
+    private final ContactPurgeService purger;
+    private final ContactVersion version;
+    private final ContactChangeLog changes;
+    private final ContactChangeBroadcaster broadcaster;
+    private final NameIndex names;
+    private final PhoneIndex phones;
+    private final TrigramIndex trigrams;
+    private final ObjectMapper mapper;
+    private final Counter validationFailures;
+
+    @Value("${phonebook.export.timeout:1h}")
+    private Duration exportTimeout;
 
-    public Controller(ListService list) {
+    public Controller(ListService list, ContactImportService importer, ContactPurgeService purger,
+                      ContactVersion version, ContactChangeLog changes, ContactChangeBroadcaster broadcaster,
+                      NameIndex names, PhoneIndex phones, TrigramIndex trigrams, ObjectMapper mapper,
+                      MeterRegistry registry) {
         this.list = list;
-        System.out.println("Controller Created");
-        log.atInfo();
+        this.importer = importer;
+        this.purger = purger;
+        this.version = version;
+        this.changes = changes;
+        this.broadcaster = broadcaster;
+        this.names = names;
+        this.phones = phones;
+        this.trigrams = trigrams;
+        this.mapper = mapper;
+        this.validationFailures = Counter.builder(MetricsConfig.VALIDATION_FAILURES)
+                .tag("source", "api")
+                .register(registry);
+        log.debug("Controller created");
     }
 
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -34,6 +105,15 @@ public class Controller {
         return Map.of("message", "Contact updated");
     }
 
+    // Partial update; send If-Match with the ETag (or a version field) to reject stale edits
+    @PatchMapping(value = "/contacts/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public ResponseEntity<Contact> patchContact(@PathVariable int id, @Valid @RequestBody ContactPatch patch,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                String ifMatch) {
+        Contact updated = list.patchContact(id, patch, parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body(updated);
+    }
+
     @PermitAll
     @PostMapping("/saveContact")
     public Map<String, String> add(@Valid @RequestBody Contact cont) {
@@ -41,9 +121,97 @@ public class Controller {
         return Map.of("message", "Contact saved");
     }
 
+    @PostMapping(value = "/importContacts", consumes = NDJSON)
+    public ImportResult importContacts(InputStream body) throws IOException {
+        return importer.importContacts(body);
+    }
+
+    // Polling clients send If-None-Match and get a 304 without a database read or serialization.
+    // Service callers can ask for application/cbor or application/x-jackson-smile instead of JSON.
     @GetMapping("/getContacts")
-    public List<Contact> getContact() {
-        return list.getAllContacts();
+    public ResponseEntity<List<Contact>> getContact(WebRequest request) {
+        String etag = version.etag(SerializationConfig.encoding(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                .body(list.getAllContacts());
+    }
+
+    @GetMapping("/contacts")
+    public ResponseEntity<ContactPage> getContactPage(@RequestParam(required = false) String sort,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      WebRequest request) {
+        String etag = version.etag(SerializationConfig.encoding(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                .body(list.getContactPage(sort, cursor, limit));
+    }
+
+    // Delta sync: pass the token from the previous call; a resync answer means download the full book
+    @GetMapping("/contacts/changes")
+    public ContactDelta getChanges(@RequestParam(required = false) String since,
+                                   @RequestParam(defaultValue = "" + ContactChangeLog.DEFAULT_LIMIT) int limit) {
+        return changes.since(since, limit);
+    }
+
+    // Live upsert/delete/resync events; EventSource reconnects send Last-Event-ID to resume
+    @GetMapping(value = "/contacts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+
+    @GetMapping("/autocomplete")
+    public List<ContactSnapshot> autocomplete(@RequestParam String prefix,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        return names.complete(prefix, limit);
+    }
+
+    @GetMapping("/search")
+    public List<ContactMatch> search(@RequestParam String q,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        return trigrams.search(q, limit);
+    }
+
+    // Served from PhoneIndex; exact misses fall back to the number index in the database
+    @GetMapping("/lookup")
+    public List<ContactSnapshot> lookup(@RequestParam String number,
+                                        @RequestParam(defaultValue = "exact") String match) {
+        return switch (match) {
+            case "exact" -> {
+                List<ContactSnapshot> hits = phones.findExact(number);
+                yield hits.isEmpty() ? list.findByNumber(number) : hits;
+            }
+            case "suffix" -> phones.findBySuffix(number);
+            default -> throw new IllegalArgumentException("Unsupported match: " + match);
+        };
+    }
+
+    @GetMapping(value = "/exportContacts", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportContacts(HttpServletRequest request) {
+        // Replaces the default async timeout for this request only
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = out -> {
+            // One JSON document per line; let the servlet buffer decide when to flush
+            ObjectWriter writer = mapper.writerFor(Contact.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+                gen.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                gen.setRootValueSeparator(null);
+                list.exportContacts(contact -> {
+                    try {
+                        writer.writeValue(gen, contact);
+                        gen.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
 //    @PreAuthorize("hasAuthority('ADMIN')")
@@ -53,9 +221,22 @@ public class Controller {
         return Map.of("message", "Contact deleted");
     }
 
+    @PostMapping("/deleteContacts")
+    public Map<String, Object> deleteContacts(@RequestBody List<Integer> ids) {
+        int deleted = list.deleteContacts(ids);
+        return Map.of("message", "Contacts deleted", "requested", ids.size(), "deleted", deleted);
+    }
+
+    // Runs in the background; poll the returned Location for progress
     @DeleteMapping("/deleteAll")
-    public void deleteAll() {
-        list.deleteAll();
+    public ResponseEntity<PurgeStatus> deleteAll() {
+        PurgeStatus job = purger.start();
+        return ResponseEntity.accepted().location(URI.create("/api/deleteAll/" + job.jobId())).body(job);
+    }
+
+    @GetMapping("/deleteAll/{jobId}")
+    public PurgeStatus deleteAllStatus(@PathVariable String jobId) {
+        return purger.status(jobId);
     }
 
     @ExceptionHandler(NoSuchElementException.class)
@@ -63,5 +244,47 @@ public class Controller {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> handleInvalid(MethodArgumentNotValidException ex) {
+        validationFailures.increment();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            errors.putIfAbsent(error.getField(), error.getDefaultMessage());
+        }
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleOverload(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Contact was modified by someone else", "message", "Reload and retry"));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
 
+    // Accepts "3", W/"3" or *; returns null when there is nothing to check
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match: " + ifMatch);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package org.redmath.Controller;
+
+import org.redmath.Model.Snapshot;
+import org.redmath.Service.SnapshotService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class SnapshotController {
+    private final SnapshotService snapshots;
+
+    public SnapshotController(SnapshotService snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    @PostMapping("/snapshot")
+    public Snapshot snapshot() {
+        return snapshots.snapshot();
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleNotPersistent(IllegalStateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+    }
+}
@@ -0,0 +1,78 @@
+package org.redmath.Controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.redmath.Model.RefreshTokenRequest;
+import org.redmath.Model.TokenResponse;
+import org.redmath.Service.TokenService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Refresh token grant. Both endpoints take {@code refresh_token} in the request body only,
+ * as a form field or a JSON property. A token in the query string ends up in access logs
+ * and browser history, so such requests are refused before the token is looked at.
+ */
+@RestController
+@RequestMapping("/api/token")
+public class TokenController {
+    private static final String REFRESH_TOKEN = "refresh_token";
+
+    private final TokenService tokens;
+
+    public TokenController(TokenService tokens) {
+        this.tokens = tokens;
+    }
+
+    @PostMapping(value = "/refresh", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public TokenResponse refresh(HttpServletRequest request) {
+        return tokens.refresh(formToken(request));
+    }
+
+    @PostMapping(value = "/refresh", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public TokenResponse refresh(@RequestBody RefreshTokenRequest body) {
+        return tokens.refresh(body.refreshToken());
+    }
+
+    @PostMapping(value = "/revoke", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public Map<String, String> revoke(HttpServletRequest request) {
+        tokens.revoke(formToken(request));
+        return Map.of("message", "Refresh token revoked");
+    }
+
+    @PostMapping(value = "/revoke", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, String> revoke(@RequestBody RefreshTokenRequest body) {
+        tokens.revoke(body.refreshToken());
+        return Map.of("message", "Refresh token revoked");
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidGrant(AuthenticationException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "invalid_grant", "message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", "invalid_request", "message", ex.getMessage()));
+    }
+
+    // Servlet parameters merge the query string into the form fields, so check it separately
+    private static String formToken(HttpServletRequest request) {
+        String query = request.getQueryString();
+        if (query != null && UriComponentsBuilder.newInstance().query(query).build()
+                .getQueryParams().containsKey(REFRESH_TOKEN)) {
+            throw new IllegalArgumentException("refresh_token must be sent in the request body");
+        }
+        String token = request.getParameter(REFRESH_TOKEN);
+        if (token == null) {
+            throw new IllegalArgumentException("refresh_token is required");
+        }
+        return token;
+    }
+}
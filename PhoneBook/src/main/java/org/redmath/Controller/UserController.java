@@ -1,12 +1,14 @@
 package org.redmath.Controller;
 import org.redmath.Model.User;
 import org.redmath.Service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 public class UserController {
@@ -36,4 +38,11 @@ public class UserController {
                     .body("User with ID " + id + " not found");
         }
     }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleHashingOverload(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Server is busy, please retry");
+    }
 }
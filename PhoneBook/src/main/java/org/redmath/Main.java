@@ -1,4 +1,5 @@
 package org.redmath;
+import org.redmath.Config.SnapshotRestorer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -11,7 +12,10 @@ public class Main {
 
 
     public static void main(String[] args) {
-        SpringApplication.run(Main.class);
+        SpringApplication app = new SpringApplication(Main.class);
+        // Must run before the datasource opens the database files
+        app.addListeners(new SnapshotRestorer());
+        app.run(args);
 
         }
     }
\ No newline at end of file
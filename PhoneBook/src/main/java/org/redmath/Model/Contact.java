@@ -4,13 +4,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
 @Entity
+// Updates only write the columns that changed
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_contact_name_id", columnList = "name, id"),
+        @Index(name = "idx_contact_number", columnList = "number")
+})
 public class Contact{
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_seq")
+    @SequenceGenerator(name = "contact_seq", sequenceName = "contact_seq", allocationSize = 50)
     private int id;
     @NotBlank(message = "Name is required")
     @Pattern(regexp = "^[A-Za-z ]+$", message = "Name must contain only letters and spaces")
@@ -20,6 +30,13 @@ public class Contact{
     @NotBlank(message = "Number is required")
     @Pattern(regexp = "^\\d+$", message = "Number must contain digits only")
     public String number;
+
+    // Optimistic lock: an update whose version is stale fails instead of overwriting a newer edit
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Contact(String n, String nu){
         this.name = n;
         this.number = nu;
@@ -0,0 +1,10 @@
+package org.redmath.Model;
+
+/**
+ * One committed change in the contact change log. Deletes are tombstones:
+ * {@code contact} is null and only {@code id} is set.
+ */
+public record ContactChange(long seq, Op op, int id, ContactSnapshot contact) {
+
+    public enum Op { UPSERT, DELETE }
+}
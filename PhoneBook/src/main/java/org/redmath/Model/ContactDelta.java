@@ -0,0 +1,12 @@
+package org.redmath.Model;
+
+import java.util.List;
+
+/**
+ * Changes since a sync token, at most one per contact. When {@code resync} is true
+ * the client must drop its copy and download the full book; {@code token} is still
+ * valid and should be taken before that download. With {@code hasMore} the client
+ * asks again with the new token straight away.
+ */
+public record ContactDelta(List<ContactChange> changes, String token, boolean hasMore, boolean resync) {
+}
@@ -0,0 +1,5 @@
+package org.redmath.Model;
+
+/** A fuzzy search hit; {@code score} is the trigram similarity in [0, 1]. */
+public record ContactMatch(ContactSnapshot contact, double score) {
+}
@@ -0,0 +1,10 @@
+package org.redmath.Model;
+
+import java.util.List;
+
+/**
+ * One keyset page of contacts. {@code nextCursor} is opaque to clients and is
+ * null once the last page has been returned.
+ */
+public record ContactPage(List<Contact> contacts, String nextCursor, boolean hasMore) {
+}
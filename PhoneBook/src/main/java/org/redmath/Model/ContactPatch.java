@@ -0,0 +1,18 @@
+package org.redmath.Model;
+
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Partial contact update: null fields are left as they are. {@code version}, when
+ * given, must match the stored version or the update is rejected.
+ */
+public record ContactPatch(
+        // @NotBlank would also reject null, which here means "keep the name", so the
+        // pattern itself insists on at least one letter
+        @Pattern(regexp = "^[A-Za-z ]*[A-Za-z][A-Za-z ]*$", message = "Name must contain only letters and spaces")
+        String name,
+        String email,
+        @Pattern(regexp = "^\\d+$", message = "Number must contain digits only")
+        String number,
+        Long version) {
+}
@@ -0,0 +1,15 @@
+package org.redmath.Model;
+
+/**
+ * Immutable copy of a contact row, safe to share between threads and to keep in
+ * in-memory indexes after the entity it came from has been detached. {@code version}
+ * is the row's optimistic-lock version; after-commit listeners can run out of commit
+ * order, so consumers use it to drop a snapshot older than one they already applied.
+ */
+public record ContactSnapshot(int id, String name, String email, String number, long version) {
+
+    public static ContactSnapshot from(Contact contact) {
+        return new ContactSnapshot(contact.getId(), contact.getName(), contact.getEmail(), contact.getNumber(),
+                contact.getVersion() == null ? 0 : contact.getVersion());
+    }
+}
@@ -0,0 +1,16 @@
+package org.redmath.Model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk contact import. {@code errors} holds at most
+ * {@link #MAX_REPORTED_ERRORS} entries; {@code failed} is always the full count.
+ */
+public record ImportResult(long imported, long failed, List<RowError> errors) {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /** A rejected input line, numbered from 1. */
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,10 @@
+package org.redmath.Model;
+
+import java.time.Instant;
+
+/** Progress of a background delete-all job. {@code finishedAt} and {@code error} stay null while it runs. */
+public record PurgeStatus(String jobId, State state, long deleted, Instant startedAt, Instant finishedAt,
+                          String error) {
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+}
@@ -0,0 +1,7 @@
+package org.redmath.Model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** JSON body of the refresh and revoke endpoints, named like the form parameter. */
+public record RefreshTokenRequest(@JsonProperty("refresh_token") String refreshToken) {
+}
@@ -0,0 +1,7 @@
+package org.redmath.Model;
+
+import java.time.Instant;
+
+/** A database backup written by {@code BACKUP TO}; restore it with {@code phonebook.storage.restore-from}. */
+public record Snapshot(String file, long bytes, Instant createdAt, long tookMillis) {
+}
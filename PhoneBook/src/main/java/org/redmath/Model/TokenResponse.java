@@ -0,0 +1,19 @@
+package org.redmath.Model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/** Body of a successful login or refresh, in the OAuth2 token response field names. */
+@JsonPropertyOrder({"token_type", "access_token", "expires_in", "email", "refresh_token"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenResponse(@JsonProperty("token_type") String tokenType,
+                            @JsonProperty("access_token") String accessToken,
+                            @JsonProperty("expires_in") long expiresIn,
+                            String email,
+                            @JsonProperty("refresh_token") String refreshToken) {
+
+    public static TokenResponse bearer(String accessToken, long expiresIn, String email) {
+        return new TokenResponse("Bearer", accessToken, expiresIn, email, null);
+    }
+}
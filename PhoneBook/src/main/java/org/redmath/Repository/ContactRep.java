@@ -1,10 +1,58 @@
 package org.redmath.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.redmath.Model.Contact;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ContactRep extends JpaRepository<Contact, Integer> {
     boolean existsByEmail(String email);
+
+    // Keyset pages: seek past the last row of the previous page instead of using OFFSET
+    List<Contact> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    List<Contact> findAllByOrderByNameAscIdAsc(Limit limit);
+
+    // Seeks idx_contact_number
+    List<Contact> findByNumber(String number);
+
+    @Query("select c from Contact c where c.name > :name or (c.name = :name and c.id > :id) order by c.name asc, c.id asc")
+    List<Contact> findNamePageAfter(@Param("name") String name, @Param("id") int id, Limit limit);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Contact c order by c.id")
+    Stream<Contact> streamAllByOrderByIdAsc();
+
+    @Query("select max(c.id) from Contact c")
+    Integer findMaxId();
+
+    @Query("select c.id from Contact c where c.id in :ids")
+    List<Integer> findIdsIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select c.id from Contact c where c.id > :after and c.id <= :upTo order by c.id")
+    List<Integer> findIdsAfter(@Param("after") int after, @Param("upTo") int upTo, Limit limit);
+
+    // Bulk deletes: one statement each, no entity load; the row count says what was removed
+    @Modifying
+    @Query("delete from Contact c where c.id = :id")
+    int removeById(@Param("id") int id);
+
+    @Modifying
+    @Query("delete from Contact c where c.id in :ids")
+    int removeByIdIn(@Param("ids") Collection<Integer> ids);
 }
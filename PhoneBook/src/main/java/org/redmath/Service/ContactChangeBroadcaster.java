@@ -0,0 +1,192 @@
+package org.redmath.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Model.ContactChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed contact changes to Server-Sent Events subscribers. An idle
+ * subscriber is just a parked async request and an empty queue; a sender runs on a
+ * virtual thread only while a subscriber has something to write. Each subscriber
+ * has a bounded buffer, and one that falls {@code buffer-size} events behind is
+ * disconnected so it cannot hold memory or stall everyone else. Event ids are
+ * sync tokens, so a reconnect with {@code Last-Event-ID} resumes where it left off.
+ */
+@Slf4j
+@Component
+public class ContactChangeBroadcaster implements ContactChangeLog.Listener {
+    private static final Object HEARTBEAT = new Object();
+
+    private final ContactChangeLog changeLog;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats;
+    private final Counter slowDisconnects;
+
+    public ContactChangeBroadcaster(ContactChangeLog changeLog, MeterRegistry registry,
+                                    @Value("${phonebook.sse.buffer-size:256}") int bufferSize,
+                                    @Value("${phonebook.sse.max-subscribers:10000}") int maxSubscribers,
+                                    @Value("${phonebook.sse.timeout:30m}") Duration timeout,
+                                    @Value("${phonebook.sse.heartbeat:15s}") Duration heartbeat) {
+        this.changeLog = changeLog;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.slowDisconnects = Counter.builder("phonebook.sse.slow.disconnects")
+                .description("Subscribers dropped because their buffer was full")
+                .register(registry);
+        Gauge.builder("phonebook.sse.subscribers", subscribers, Set::size).register(registry);
+        // Heartbeats keep proxies from closing idle streams and flush out dead connections
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(sub -> offer(sub, HEARTBEAT)),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        changeLog.addListener(this);
+    }
+
+    /**
+     * Opens a stream. With {@code lastEventId} the changes after it are replayed first;
+     * if they are no longer retained the stream starts with a {@code resync} event.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many change stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber sub = new Subscriber(emitter, new LinkedBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> close(sub));
+        emitter.onTimeout(() -> close(sub));
+        emitter.onError(error -> close(sub));
+
+        changeLog.resume(lastEventId, backlog -> {
+            if (backlog == null || backlog.size() > bufferSize) {
+                sub.queue.offer(new Resync(changeLog.currentToken()));
+            } else {
+                backlog.forEach(change -> sub.queue.offer(new Pending(change, changeLog.token(change.seq()))));
+            }
+            subscribers.add(sub);
+        });
+        schedule(sub);
+        return emitter;
+    }
+
+    @Override
+    public void onChange(ContactChange change, String token) {
+        Pending pending = new Pending(change, token);
+        subscribers.forEach(sub -> offer(sub, pending));
+    }
+
+    @Override
+    public void onReset(String token) {
+        Resync resync = new Resync(token);
+        subscribers.forEach(sub -> offer(sub, resync));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(sub -> sub.emitter.complete());
+        senders.shutdown();
+    }
+
+    private void offer(Subscriber sub, Object item) {
+        if (sub.closed.get()) {
+            return;
+        }
+        if (!sub.queue.offer(item)) {
+            slowDisconnects.increment();
+            log.debug("Dropping change stream subscriber that fell {} events behind", bufferSize);
+            close(sub);
+            senders.execute(sub.emitter::complete);
+            return;
+        }
+        schedule(sub);
+    }
+
+    private void schedule(Subscriber sub) {
+        if (sub.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(sub));
+        }
+    }
+
+    private void drain(Subscriber sub) {
+        try {
+            Object item;
+            while (!sub.closed.get() && (item = sub.queue.poll()) != null) {
+                send(sub.emitter, item);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            close(sub);
+        } finally {
+            sub.draining.set(false);
+        }
+        // An offer may have landed after the last poll but before the flag was cleared
+        if (!sub.closed.get() && !sub.queue.isEmpty()) {
+            schedule(sub);
+        }
+    }
+
+    private static void send(SseEmitter emitter, Object item) throws IOException {
+        if (item == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else if (item instanceof Resync resync) {
+            emitter.send(SseEmitter.event().id(resync.token).name("resync").data("{}", MediaType.APPLICATION_JSON));
+        } else if (item instanceof Pending pending) {
+            emitter.send(SseEmitter.event()
+                    .id(pending.token)
+                    .name(pending.change.op().name().toLowerCase(Locale.ROOT))
+                    .data(pending.change, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void close(Subscriber sub) {
+        sub.closed.set(true);
+        subscribers.remove(sub);
+    }
+
+    private record Pending(ContactChange change, String token) {
+    }
+
+    private record Resync(String token) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
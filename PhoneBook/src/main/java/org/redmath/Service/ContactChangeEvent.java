@@ -0,0 +1,29 @@
+package org.redmath.Service;
+
+import org.redmath.Model.ContactSnapshot;
+
+/**
+ * Published by the contact write paths. Listeners should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ * {@code contact} is null for deletes and clears.
+ */
+public record ContactChangeEvent(Type type, int id, ContactSnapshot contact) {
+
+    public enum Type { CREATED, UPDATED, DELETED, CLEARED }
+
+    public static ContactChangeEvent created(ContactSnapshot contact) {
+        return new ContactChangeEvent(Type.CREATED, contact.id(), contact);
+    }
+
+    public static ContactChangeEvent updated(ContactSnapshot contact) {
+        return new ContactChangeEvent(Type.UPDATED, contact.id(), contact);
+    }
+
+    public static ContactChangeEvent deleted(int id) {
+        return new ContactChangeEvent(Type.DELETED, id, null);
+    }
+
+    public static ContactChangeEvent cleared() {
+        return new ContactChangeEvent(Type.CLEARED, 0, null);
+    }
+}
@@ -0,0 +1,173 @@
+package org.redmath.Service;
+
+import org.redmath.Model.ContactChange;
+import org.redmath.Model.ContactDelta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The last N committed contact changes in a ring buffer, numbered by a sequence that
+ * restarts with the process. A sync token is {@code <epoch>.<seq>}: a client holding
+ * one gets only what changed after it, and is told to resync when the token is from
+ * an earlier process, older than the ring, or from before a full clear.
+ * Listeners see every change in sequence order as it is appended.
+ * <p>
+ * After-commit listeners run on the committing threads, so two commits can arrive
+ * here in the opposite order. Each contact's last appended version is remembered
+ * while its change is still in the ring. A snapshot older than that, or any upsert
+ * after a delete, is dropped, so replaying the log never ends on an older state.
+ */
+@Component
+public class ContactChangeLog {
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 10_000;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ContactChange[] ring;
+    // Next sequence to hand out; sequence 0 means "before the first change"
+    private long next = 1;
+    // Tokens before this sequence cannot be answered with a delta
+    private long resetAt = 1;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Contact id -> newest change appended for it, for ids whose change is still in the ring
+    private final Map<Integer, ContactChange> lastById = new HashMap<>();
+
+    /** Called with the log locked, so implementations must not block. */
+    public interface Listener {
+        void onChange(ContactChange change, String token);
+
+        /** Everything before {@code token} is gone; consumers must reload. */
+        void onReset(String token);
+    }
+
+    public ContactChangeLog(@Value("${phonebook.sync.retained-changes:10000}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("phonebook.sync.retained-changes must be positive");
+        }
+        this.ring = new ContactChange[capacity];
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onContactChange(ContactChangeEvent event) {
+        if (event.type() == ContactChangeEvent.Type.CLEARED) {
+            long seq = next++;
+            resetAt = next;
+            lastById.clear();
+            listeners.forEach(listener -> listener.onReset(token(seq)));
+            return;
+        }
+        if (isStale(event)) {
+            return;
+        }
+        long seq = next++;
+        ContactChange change = event.type() == ContactChangeEvent.Type.DELETED
+                ? new ContactChange(seq, ContactChange.Op.DELETE, event.id(), null)
+                : new ContactChange(seq, ContactChange.Op.UPSERT, event.id(), event.contact());
+        ContactChange evicted = ring[slot(seq)];
+        if (evicted != null && lastById.get(evicted.id()) == evicted) {
+            lastById.remove(evicted.id());
+        }
+        ring[slot(seq)] = change;
+        lastById.put(change.id(), change);
+        listeners.forEach(listener -> listener.onChange(change, token(seq)));
+    }
+
+    // Ids are never reused, so nothing may follow a delete; equal versions are harmless repeats
+    private boolean isStale(ContactChangeEvent event) {
+        ContactChange last = lastById.get(event.id());
+        if (last == null || event.type() == ContactChangeEvent.Type.DELETED) {
+            return last != null && last.op() == ContactChange.Op.DELETE;
+        }
+        return last.op() == ContactChange.Op.DELETE || event.contact().version() < last.contact().version();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Hands {@code join} the raw changes after {@code token} while no newer change can be
+     * appended, so a consumer that starts listening inside {@code join} sees every change
+     * exactly once. A null token replays nothing; a token that can no longer be replayed
+     * in full is passed as null.
+     */
+    public synchronized void resume(String token, Consumer<List<ContactChange>> join) {
+        if (token == null) {
+            join.accept(List.of());
+            return;
+        }
+        long after = parse(token);
+        if (!replayable(after)) {
+            join.accept(null);
+            return;
+        }
+        List<ContactChange> changes = new ArrayList<>((int) (next - 1 - after));
+        for (long seq = after + 1; seq < next; seq++) {
+            changes.add(ring[slot(seq)]);
+        }
+        join.accept(changes);
+    }
+
+    public synchronized String currentToken() {
+        return token(next - 1);
+    }
+
+    /**
+     * Changes after {@code token}, oldest first, with only the latest change kept per contact.
+     * A null or unusable token gets {@code resync} and the current token.
+     */
+    public synchronized ContactDelta since(String token, int limit) {
+        long after = parse(token);
+        if (!replayable(after)) {
+            return new ContactDelta(List.of(), currentToken(), false, true);
+        }
+        long upTo = Math.min(next - 1, after + Math.max(1, Math.min(limit, MAX_LIMIT)));
+        Map<Integer, ContactChange> latest = new LinkedHashMap<>();
+        for (long seq = after + 1; seq <= upTo; seq++) {
+            ContactChange change = ring[slot(seq)];
+            // Re-insert so the contact moves to the position of its latest change
+            latest.remove(change.id());
+            latest.put(change.id(), change);
+        }
+        return new ContactDelta(List.copyOf(latest.values()), token(upTo), upTo < next - 1, false);
+    }
+
+    private boolean replayable(long after) {
+        long oldest = Math.max(resetAt, next - ring.length);
+        return after >= oldest - 1 && after < next;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % ring.length);
+    }
+
+    /** The sync token that resumes right after {@code seq}. */
+    public String token(long seq) {
+        return epoch + "." + seq;
+    }
+
+    // Anything not issued by this process maps to -1, which always forces a resync
+    private long parse(String token) {
+        if (token == null) {
+            return -1;
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0 || !token.substring(0, dot).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(dot + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
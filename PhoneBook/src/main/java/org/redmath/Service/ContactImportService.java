@@ -0,0 +1,174 @@
+package org.redmath.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Config.MetricsConfig;
+import org.redmath.Model.Contact;
+import org.redmath.Model.ContactSnapshot;
+import org.redmath.Model.ImportResult;
+import org.redmath.Repository.ContactRep;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of newline-delimited JSON contacts. Rows are validated one by one and
+ * written in chunks, each chunk in its own transaction, so a failed chunk never rolls
+ * back what was already imported. A chunk the database refuses is split until only
+ * the offending rows are rejected.
+ */
+@Slf4j
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ContactImportService {
+    public static final int CHUNK_SIZE = 1000;
+
+    private final ContactRep repo;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final ObjectReader reader;
+    private final ApplicationEventPublisher events;
+    private final Counter validationFailures;
+
+    public ContactImportService(ContactRep repo, EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator, ObjectMapper mapper,
+                                ApplicationEventPublisher events, MeterRegistry registry) {
+        this.repo = repo;
+        this.events = events;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.reader = mapper.readerFor(Contact.class);
+        this.validationFailures = Counter.builder(MetricsConfig.VALIDATION_FAILURES)
+                .tag("source", "import")
+                .register(registry);
+    }
+
+    public ImportResult importContacts(InputStream in) throws IOException {
+        Progress progress = new Progress();
+        List<Contact> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> chunkLines = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNo = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Contact contact = parse(line, lineNo, progress);
+                if (contact == null) {
+                    continue;
+                }
+                chunk.add(contact);
+                chunkLines.add(lineNo);
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, chunkLines, progress);
+                }
+            }
+        }
+        flush(chunk, chunkLines, progress);
+        log.info("Contact import finished: {} imported, {} failed", progress.imported, progress.failed);
+        return new ImportResult(progress.imported, progress.failed, progress.errors);
+    }
+
+    private Contact parse(String line, long lineNo, Progress progress) {
+        Contact contact;
+        try {
+            contact = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            progress.reject(lineNo, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        Set<ConstraintViolation<Contact>> violations = validator.validate(contact);
+        if (!violations.isEmpty()) {
+            validationFailures.increment();
+            progress.reject(lineNo, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        // Imports always create new rows; ids come from the pooled sequence
+        contact.setId(0);
+        contact.setVersion(null);
+        return contact;
+    }
+
+    private void flush(List<Contact> chunk, List<Long> chunkLines, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        write(chunk, chunkLines, progress);
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    /**
+     * Saves {@code rows} in one transaction. If the database refuses it, the rows are
+     * retried in halves, each in its own transaction, until the failing lines are
+     * isolated: one bad row costs about log2(chunk) extra transactions, not the chunk.
+     */
+    private void write(List<Contact> rows, List<Long> lines, Progress progress) {
+        try {
+            tx.executeWithoutResult(status -> {
+                repo.saveAll(rows).forEach(saved ->
+                        events.publishEvent(ContactChangeEvent.created(ContactSnapshot.from(saved))));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.imported += rows.size();
+        } catch (RuntimeException e) {
+            // The rolled back insert left sequence ids on the entities; retries must insert afresh
+            rows.forEach(contact -> {
+                contact.setId(0);
+                contact.setVersion(null);
+            });
+            if (rows.size() == 1) {
+                log.debug("Contact import line {} rejected by database", lines.get(0), e);
+                progress.reject(lines.get(0),
+                        "Rejected by database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            int half = rows.size() / 2;
+            write(rows.subList(0, half), lines.subList(0, half), progress);
+            write(rows.subList(half, rows.size()), lines.subList(half, lines.size()), progress);
+        }
+    }
+
+    private static final class Progress {
+        private long imported;
+        private long failed;
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < ImportResult.MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.RowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.redmath.Service;
+
+import org.redmath.Model.ContactSnapshot;
+
+import java.util.List;
+
+/**
+ * An in-memory lookup structure over contacts. Implementations are loaded once at
+ * startup and then kept current by {@link ContactIndexMaintainer}; all methods may
+ * be called concurrently with reads.
+ */
+public interface ContactIndex {
+
+    void rebuild(List<ContactSnapshot> contacts);
+
+    /**
+     * Inserts the contact or replaces the entry with the same id, unless that entry
+     * has a higher version: snapshots can arrive out of commit order.
+     */
+    void put(ContactSnapshot contact);
+
+    void remove(int id);
+
+    void clear();
+
+    int size();
+
+    static boolean isNewer(ContactSnapshot existing, ContactSnapshot incoming) {
+        return existing != null && existing.version() > incoming.version();
+    }
+}
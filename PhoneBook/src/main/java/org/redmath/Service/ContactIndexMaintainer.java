@@ -0,0 +1,88 @@
+package org.redmath.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Model.ContactSnapshot;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads every {@link ContactIndex} from the database before the web server starts
+ * taking requests, then applies committed contact changes to all of them, reloading
+ * after a full clear.
+ * Each index reports its entry count as {@code phonebook.index.size}.
+ */
+@Slf4j
+@Component
+public class ContactIndexMaintainer implements SmartInitializingSingleton {
+    private static final int RECENT_DELETES = 10_000;
+
+    private final List<ContactIndex> indexes;
+    private final ListService list;
+    // Only late events need catching, which arrive within moments of the delete
+    private final Set<Integer> recentlyDeleted = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+            return size() > RECENT_DELETES;
+        }
+    });
+
+    public ContactIndexMaintainer(List<ContactIndex> indexes, ListService list, MeterRegistry registry) {
+        this.indexes = indexes;
+        this.list = list;
+        for (ContactIndex index : indexes) {
+            Gauge.builder("phonebook.index.size", index, ContactIndex::size)
+                    .tag("index", index.getClass().getSimpleName())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        List<ContactSnapshot> all = new ArrayList<>();
+        list.exportContacts(contact -> all.add(ContactSnapshot.from(contact)));
+        indexes.forEach(index -> index.rebuild(all));
+        log.info("Loaded {} contacts into {} indexes in {} ms",
+                all.size(), indexes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies one committed change. Listeners run on the committing threads, so an older
+     * snapshot can arrive after a newer one: the indexes keep the higher version, and an
+     * upsert for a recently deleted id is dropped (ids are never reused).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onContactChange(ContactChangeEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                if (!recentlyDeleted.contains(event.id())) {
+                    indexes.forEach(index -> index.put(event.contact()));
+                }
+            }
+            case DELETED -> {
+                recentlyDeleted.add(event.id());
+                indexes.forEach(index -> index.remove(event.id()));
+            }
+            case CLEARED -> {
+                // A purge only removes the rows that existed when it started, so reload
+                // rather than clear; changes committed meanwhile wait on this monitor
+                recentlyDeleted.clear();
+                reload();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.redmath.Service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Config.MetricsConfig;
+import org.redmath.Model.PurgeStatus;
+import org.redmath.Repository.ContactRep;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deletes every contact in the background, {@value #CHUNK_SIZE} ids per transaction,
+ * so a wipe holds neither an HTTP thread nor more than one chunk of ids in memory.
+ * Only rows that existed when the job started are removed. Consumers get a single
+ * CLEARED event once the job ends instead of one event per row, so caches, indexes and
+ * sync clients reload once rather than replaying millions of deletes. At most one job
+ * runs at a time; the last {@value #RETAINED_JOBS} jobs can be queried by id.
+ */
+@Slf4j
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ContactPurgeService {
+    public static final int CHUNK_SIZE = 1000;
+    public static final int RETAINED_JOBS = 50;
+
+    private final ContactRep repo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final AsyncTaskExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private Job running;
+
+    public ContactPurgeService(ContactRep repo, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher events,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                               AsyncTaskExecutor executor) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.executor = executor;
+    }
+
+    /** Starts a purge, or returns the one already running. */
+    public synchronized PurgeStatus start() {
+        if (running != null) {
+            return running.status();
+        }
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        running = job;
+        trim();
+        executor.execute(() -> run(job));
+        return job.status();
+    }
+
+    public PurgeStatus status(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new NoSuchElementException("No delete job found with ID: " + jobId);
+        }
+        return job.status();
+    }
+
+    private void run(Job job) {
+        String failure = null;
+        try {
+            Integer maxId = repo.findMaxId();
+            int lastId = Integer.MIN_VALUE;
+            while (maxId != null) {
+                int after = lastId;
+                List<Integer> ids = repo.findIdsAfter(after, maxId, Limit.of(CHUNK_SIZE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                int removed = tx.execute(status -> repo.removeByIdIn(ids));
+                job.deleted += removed;
+                lastId = ids.get(ids.size() - 1);
+            }
+            log.info("Delete job {} removed {} contacts", job.id, job.deleted);
+        } catch (RuntimeException e) {
+            log.warn("Delete job {} failed after {} contacts", job.id, job.deleted, e);
+            failure = e.getMessage();
+        }
+        try {
+            // Also after a failure: whatever chunks committed are gone. Published before the
+            // job reports done, so a client that sees COMPLETED also sees the cleared state.
+            if (job.deleted > 0) {
+                events.publishEvent(ContactChangeEvent.cleared());
+            }
+        } finally {
+            job.finish(failure == null ? PurgeStatus.State.COMPLETED : PurgeStatus.State.FAILED, failure);
+            synchronized (this) {
+                running = null;
+            }
+        }
+    }
+
+    // Forget the oldest finished jobs beyond the retention limit
+    private void trim() {
+        if (jobs.size() <= RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparing(job -> job.startedAt))
+                .limit(jobs.size() - RETAINED_JOBS)
+                .toList()
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Instant startedAt = Instant.now();
+        private volatile long deleted;
+        private volatile PurgeStatus.State state = PurgeStatus.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(String id) {
+            this.id = id;
+        }
+
+        private void finish(PurgeStatus.State state, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private PurgeStatus status() {
+            return new PurgeStatus(id, state, deleted, startedAt, finishedAt, error);
+        }
+    }
+}
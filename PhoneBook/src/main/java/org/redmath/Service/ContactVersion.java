@@ -0,0 +1,40 @@
+package org.redmath.Service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the contact table, bumped after every committed change.
+ * Read caches put it in their keys: a read that started before a commit stores its
+ * result under the old version, where no later read will look for it.
+ * The same number, prefixed with the startup time and suffixed with the response
+ * encoding, is the ETag of contact listings.
+ */
+@Component
+public class ContactVersion {
+    private final AtomicLong version = new AtomicLong();
+    // The counter restarts with the process; the epoch keeps old ETags from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag for the current table state in {@code encoding} ({@code null} for JSON);
+     * a strong ETag promises identical bytes, so each encoding gets its own. Read it before
+     * the data it describes: a change that lands in between then only costs the client one
+     * extra download.
+     */
+    public String etag(String encoding) {
+        String tag = epoch + "-" + version.get();
+        return "\"" + (encoding == null ? tag : tag + "." + encoding) + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChange(ContactChangeEvent event) {
+        version.incrementAndGet();
+    }
+}
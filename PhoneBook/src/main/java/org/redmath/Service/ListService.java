@@ -1,39 +1,245 @@
 package org.redmath.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Config.MetricsConfig;
+import org.redmath.Config.CacheConfig;
 import org.redmath.Model.Contact;
+import org.redmath.Model.ContactPage;
+import org.redmath.Model.ContactPatch;
+import org.redmath.Model.ContactSnapshot;
 import org.redmath.Repository.ContactRep;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Slf4j
 public class ListService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DELETE_BATCH_SIZE = 1000;
+    public static final int MAX_BULK_DELETE = 100_000;
+
     private final ContactRep repo;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher events;
+    private final Counter deleteNotFound;
 
-    public ListService(ContactRep repo){
+    public ListService(ContactRep repo, EntityManager entityManager, ApplicationEventPublisher events,
+                       MeterRegistry registry){
         this.repo = repo;
-        System.out.println("Repo Done!");
-        System.out.println("Service Created");
+        this.entityManager = entityManager;
+        this.events = events;
+        this.deleteNotFound = Counter.builder("phonebook.contacts.delete.not.found")
+                .description("Deletes for a contact id that does not exist")
+                .register(registry);
+        log.debug("ListService created");
     }
 
+    /**
+     * Full replace. A request without a version overwrites whatever is stored (last
+     * writer wins); one with a version is rejected if the row has moved on since.
+     */
+    @Transactional
     public void updateContact(Contact obj){
-        repo.save(obj);
+        Contact current = repo.findById(obj.getId()).orElse(null);
+        if (current == null) {
+            // Unknown id: stored as a new contact, as before
+            obj.setId(0);
+            obj.setVersion(null);
+            addToBook(obj);
+            return;
+        }
+        checkVersion(current, obj.getVersion());
+        current.setName(obj.getName());
+        current.setEmail(obj.getEmail());
+        current.setNumber(obj.getNumber());
+        // Flush now so the event carries the version this update commits with
+        repo.flush();
+        events.publishEvent(ContactChangeEvent.updated(ContactSnapshot.from(current)));
     }
 
+    /**
+     * Applies the non-null fields of {@code patch}. Only changed columns are written,
+     * guarded by the row version, so a concurrent edit fails with
+     * {@link ObjectOptimisticLockingFailureException} instead of being lost.
+     */
+    @Transactional
+    public Contact patchContact(int id, ContactPatch patch, Long expectedVersion) {
+        Contact contact = repo.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("No contact found with ID: " + id));
+        checkVersion(contact, expectedVersion);
+        checkVersion(contact, patch.version());
+        if (patch.name() != null) {
+            contact.setName(patch.name());
+        }
+        if (patch.email() != null) {
+            contact.setEmail(patch.email());
+        }
+        if (patch.number() != null) {
+            contact.setNumber(patch.number());
+        }
+        // Flush now so the response carries the new version
+        repo.flush();
+        events.publishEvent(ContactChangeEvent.updated(ContactSnapshot.from(contact)));
+        return contact;
+    }
+
+    @Transactional
     public void addToBook(Contact cont){
-        repo.save(cont);
+        Contact saved = repo.save(cont);
+        events.publishEvent(ContactChangeEvent.created(ContactSnapshot.from(saved)));
     }
+    @Transactional
     public void deleteContact(String id){
         int value = Integer.parseInt(id);
-        if (!repo.existsById(value)) {
+        if (repo.removeById(value) == 0) {
+            deleteNotFound.increment();
             throw new NoSuchElementException("No contact found with ID: " + value);
         }
-        repo.deleteById(value);
+        events.publishEvent(ContactChangeEvent.deleted(value));
+    }
+
+    /**
+     * Deletes the given ids in one transaction, {@value #DELETE_BATCH_SIZE} per
+     * {@code IN} statement. Unknown ids are skipped and get no change event; returns the
+     * number of rows removed.
+     */
+    @Transactional
+    public int deleteContacts(Collection<Integer> ids) {
+        if (ids.size() > MAX_BULK_DELETE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DELETE + " ids per request");
+        }
+        // Sorted so each batch walks the primary key index in order
+        List<Integer> distinct = ids.stream().distinct().sorted().toList();
+        int removed = 0;
+        for (int from = 0; from < distinct.size(); from += DELETE_BATCH_SIZE) {
+            List<Integer> batch = distinct.subList(from, Math.min(from + DELETE_BATCH_SIZE, distinct.size()));
+            // Only rows that are really there get a change event
+            List<Integer> existing = repo.findIdsIn(batch);
+            if (existing.isEmpty()) {
+                continue;
+            }
+            removed += repo.removeByIdIn(existing);
+            existing.forEach(value -> events.publishEvent(ContactChangeEvent.deleted(value)));
+        }
+        return removed;
     }
+    @Cacheable(cacheNames = CacheConfig.CONTACTS, key = "@contactVersion.current()")
     public List<Contact> getAllContacts(){
-        return repo.findAll();
+        return List.copyOf(repo.findAll());
     }
-    public void deleteAll() {
-        repo.deleteAll();
+
+    /**
+     * Returns one page ordered by id (default) or by name. The cursor carries the
+     * sort key of the last row served, so each page is an index seek and costs
+     * the same no matter how deep into the table the client is.
+     */
+    @Cacheable(cacheNames = CacheConfig.CONTACT_PAGES,
+            key = "@contactVersion.current() + '|' + #sort + '|' + #cursor + '|' + #limit")
+    public ContactPage getContactPage(String sort, String cursor, Integer limit) {
+        boolean byName = parseSort(sort);
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Ask for one extra row so we know whether another page exists without a COUNT
+        Limit fetch = Limit.of(size + 1);
+
+        List<Contact> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = byName ? repo.findAllByOrderByNameAscIdAsc(fetch)
+                    : repo.findByIdGreaterThanOrderByIdAsc(Integer.MIN_VALUE, fetch);
+        } else {
+            String[] key = decodeCursor(cursor, byName);
+            int lastId = Integer.parseInt(key[1]);
+            rows = byName ? repo.findNamePageAfter(key[2], lastId, fetch)
+                    : repo.findByIdGreaterThanOrderByIdAsc(lastId, fetch);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<Contact> page = List.copyOf(hasMore ? rows.subList(0, size) : rows);
+        String next = hasMore ? encodeCursor(page.get(page.size() - 1), byName) : null;
+        return new ContactPage(page, next, hasMore);
+    }
+
+    /**
+     * Hands every contact to {@code sink} in id order straight off a database cursor.
+     * Each row is detached once written so the persistence context never grows.
+     */
+    /**
+     * Exact number lookup in the database, for numbers PhoneIndex does not know: the index
+     * is updated after commit, so a contact saved a moment ago may not be in it yet.
+     */
+    public List<ContactSnapshot> findByNumber(String number) {
+        return repo.findByNumber(PhoneIndex.digits(number)).stream().map(ContactSnapshot::from).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportContacts(Consumer<Contact> sink) {
+        try (Stream<Contact> rows = repo.streamAllByOrderByIdAsc()) {
+            rows.forEach(contact -> {
+                sink.accept(contact);
+                entityManager.detach(contact);
+            });
+        }
+    }
+
+    // Every change can shift any cached listing, so drop them all once the change is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = {CacheConfig.CONTACTS, CacheConfig.CONTACT_PAGES}, allEntries = true)
+    public void evictListings(ContactChangeEvent event) {
+    }
+
+    private static void checkVersion(Contact current, Long expected) {
+        if (expected != null && !expected.equals(current.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Contact.class, current.getId());
+        }
+    }
+
+    private boolean parseSort(String sort) {
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("id")) {
+            return false;
+        }
+        if (sort.equalsIgnoreCase("name")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + sort);
+    }
+
+    private String encodeCursor(Contact last, boolean byName) {
+        String raw = byName ? "n:" + last.getId() + ":" + last.getName() : "i:" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns {kind, id, name?}; rejects cursors that were issued for a different sort order
+    private String[] decodeCursor(String cursor, boolean byName) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] key = raw.split(":", 3);
+            boolean valid = byName ? key.length == 3 && key[0].equals("n") : key.length == 2 && key[0].equals("i");
+            if (!valid) {
+                throw new IllegalArgumentException("Cursor does not match sort order");
+            }
+            Integer.parseInt(key[1]);
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 }
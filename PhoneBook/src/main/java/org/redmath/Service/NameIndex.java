@@ -0,0 +1,79 @@
+package org.redmath.Service;
+
+import org.redmath.Model.ContactSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Case-insensitive prefix index over contact names for type-ahead search. Entries are
+ * kept in a sorted skip list keyed by normalized name, so a lookup is one seek to the
+ * first key with the prefix followed by a walk of at most {@code limit} entries.
+ */
+@Component
+public class NameIndex implements ContactIndex {
+    public static final int MAX_RESULTS = 50;
+
+    // Separates the name from the id in a key; sorts before every character a name may contain
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, ContactSnapshot> byName = new ConcurrentSkipListMap<>();
+    private final Map<Integer, String> keyById = new ConcurrentHashMap<>();
+
+    public List<ContactSnapshot> complete(String prefix, int limit) {
+        String from = normalize(prefix);
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        NavigableMap<String, ContactSnapshot> matches =
+                byName.subMap(from, true, from + Character.MAX_VALUE, false);
+        return matches.values().stream().limit(max).toList();
+    }
+
+    @Override
+    public void rebuild(List<ContactSnapshot> contacts) {
+        clear();
+        contacts.forEach(this::put);
+    }
+
+    @Override
+    public void put(ContactSnapshot contact) {
+        String key = normalize(contact.name()) + SEPARATOR + contact.id();
+        keyById.compute(contact.id(), (id, previous) -> {
+            if (previous != null && ContactIndex.isNewer(byName.get(previous), contact)) {
+                return previous;
+            }
+            if (previous != null && !previous.equals(key)) {
+                byName.remove(previous);
+            }
+            byName.put(key, contact);
+            return key;
+        });
+    }
+
+    @Override
+    public void remove(int id) {
+        keyById.computeIfPresent(id, (ignored, key) -> {
+            byName.remove(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        keyById.clear();
+        byName.clear();
+    }
+
+    @Override
+    public int size() {
+        return keyById.size();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
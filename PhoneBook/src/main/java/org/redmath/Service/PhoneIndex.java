@@ -0,0 +1,142 @@
+package org.redmath.Service;
+
+import org.redmath.Model.ContactSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse lookup from phone number to contacts. Numbers are reduced to their digits
+ * and hashed twice: once whole for exact matches, and once on the last
+ * {@value #SUFFIX_KEY_LENGTH} digits so a caller-ID style suffix query only has to
+ * check the handful of contacts sharing that bucket.
+ */
+@Component
+public class PhoneIndex implements ContactIndex {
+    public static final int SUFFIX_KEY_LENGTH = 7;
+    public static final int MAX_SUFFIX_LENGTH = 10;
+
+    private final Map<Integer, ContactSnapshot> byId = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> exact = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> bySuffix = new ConcurrentHashMap<>();
+
+    public List<ContactSnapshot> findExact(String number) {
+        String digits = digits(number);
+        if (digits.isEmpty()) {
+            throw new IllegalArgumentException("Number must contain digits");
+        }
+        return resolve(exact.getOrDefault(digits, Set.of()), digits);
+    }
+
+    /** Matches contacts whose number ends with the given 7 to 10 digits. */
+    public List<ContactSnapshot> findBySuffix(String number) {
+        String digits = digits(number);
+        if (digits.length() < SUFFIX_KEY_LENGTH || digits.length() > MAX_SUFFIX_LENGTH) {
+            throw new IllegalArgumentException("Suffix lookups need " + SUFFIX_KEY_LENGTH
+                    + " to " + MAX_SUFFIX_LENGTH + " digits");
+        }
+        return resolve(bySuffix.getOrDefault(suffixKey(digits), Set.of()), digits);
+    }
+
+    @Override
+    public void rebuild(List<ContactSnapshot> contacts) {
+        clear();
+        contacts.forEach(this::put);
+    }
+
+    @Override
+    public void put(ContactSnapshot contact) {
+        byId.compute(contact.id(), (id, previous) -> {
+            if (ContactIndex.isNewer(previous, contact)) {
+                return previous;
+            }
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(contact);
+            return contact;
+        });
+    }
+
+    @Override
+    public void remove(int id) {
+        byId.computeIfPresent(id, (ignored, previous) -> {
+            unlink(previous);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        byId.clear();
+        exact.clear();
+        bySuffix.clear();
+    }
+
+    @Override
+    public int size() {
+        return byId.size();
+    }
+
+    // Buckets can be shared by numbers that only agree on the hashed key, so re-check each candidate
+    private List<ContactSnapshot> resolve(Set<Integer> ids, String digits) {
+        return ids.stream()
+                .map(byId::get)
+                .filter(c -> c != null && digits(c.number()).endsWith(digits))
+                .toList();
+    }
+
+    private void link(ContactSnapshot contact) {
+        String digits = digits(contact.number());
+        if (digits.isEmpty()) {
+            return;
+        }
+        attach(exact, digits, contact.id());
+        attach(bySuffix, suffixKey(digits), contact.id());
+    }
+
+    private void unlink(ContactSnapshot contact) {
+        String digits = digits(contact.number());
+        if (digits.isEmpty()) {
+            return;
+        }
+        detach(exact, digits, contact.id());
+        detach(bySuffix, suffixKey(digits), contact.id());
+    }
+
+    private static void attach(Map<String, Set<Integer>> buckets, String key, int id) {
+        buckets.compute(key, (k, ids) -> {
+            Set<Integer> bucket = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            bucket.add(id);
+            return bucket;
+        });
+    }
+
+    private static void detach(Map<String, Set<Integer>> buckets, String key, int id) {
+        buckets.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static String suffixKey(String digits) {
+        return digits.length() <= SUFFIX_KEY_LENGTH ? digits : digits.substring(digits.length() - SUFFIX_KEY_LENGTH);
+    }
+
+    static String digits(String number) {
+        if (number == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package org.redmath.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Model.Snapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Online binary snapshots of a file-backed H2 database. {@code BACKUP TO} copies the
+ * store into a zip while the application keeps serving, and restoring that zip at
+ * startup is a file copy, so a large book comes back in seconds rather than by
+ * replaying inserts.
+ */
+@Slf4j
+@Service
+public class SnapshotService {
+    private static final DateTimeFormatter STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbc;
+    private final String url;
+    private final Path directory;
+
+    public SnapshotService(JdbcTemplate jdbc,
+                           @Value("${spring.datasource.url}") String url,
+                           @Value("${phonebook.storage.snapshot-dir:./data/snapshots}") Path directory) {
+        this.jdbc = jdbc;
+        this.url = url;
+        this.directory = directory;
+    }
+
+    public boolean isPersistent() {
+        return url.startsWith("jdbc:h2:file:") || url.startsWith("jdbc:h2:./") || url.startsWith("jdbc:h2:~/");
+    }
+
+    public synchronized Snapshot snapshot() {
+        if (!isPersistent()) {
+            throw new IllegalStateException("Snapshots need the file-backed database (persistent profile)");
+        }
+        Instant now = Instant.now();
+        Path target = directory.resolve("phonebook-" + STAMP.format(now) + ".zip").toAbsolutePath();
+        try {
+            Files.createDirectories(directory);
+            long start = System.nanoTime();
+            jdbc.execute("BACKUP TO '" + target.toString().replace("'", "''") + "'");
+            long took = (System.nanoTime() - start) / 1_000_000;
+            log.info("Database snapshot written to {} in {} ms", target, took);
+            return new Snapshot(target.toString(), Files.size(target), now, took);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
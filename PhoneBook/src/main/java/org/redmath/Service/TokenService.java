@@ -0,0 +1,224 @@
+package org.redmath.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Config.SecurityConfig;
+import org.redmath.Model.TokenResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues access tokens together with opaque refresh tokens, so clients renew with a
+ * map lookup and an HMAC instead of another BCrypt login. Only the SHA-256 digest
+ * of a refresh token is kept. Every refresh rotates the token within its family (every
+ * token descended from the same login). A rotated token is remembered for a short
+ * reuse window; presenting it again means it leaked, so the whole family is revoked.
+ * Each user keeps at most a fixed number of live families, the oldest being revoked
+ * first, which bounds the store at users x families x (1 + rotated tokens).
+ */
+@Slf4j
+@Service
+public class TokenService {
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    // Rotated tokens remembered per family, on top of the reuse window, for clients that refresh in a loop
+    private static final int MAX_ROTATED = 8;
+
+    private final JwtEncoder jwtEncoder;
+    private final UserService users;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final long reuseWindowMillis;
+    private final int maxFamilies;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentHashMap<String, Family> byToken = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Deque<Family>> byUser = new ConcurrentHashMap<>();
+    private final Counter reuse;
+    private final ScheduledExecutorService sweeper;
+
+    public TokenService(JwtEncoder jwtEncoder, UserService users, MeterRegistry registry,
+                        @Value("${phonebook.jwt.access-ttl:1h}") Duration accessTtl,
+                        @Value("${phonebook.jwt.refresh-ttl:14d}") Duration refreshTtl,
+                        @Value("${phonebook.jwt.refresh-reuse-window:10m}") Duration reuseWindow,
+                        @Value("${phonebook.jwt.refresh-families-per-user:10}") int maxFamilies) {
+        this.jwtEncoder = jwtEncoder;
+        this.users = users;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.reuseWindowMillis = reuseWindow.toMillis();
+        this.maxFamilies = maxFamilies;
+        this.reuse = Counter.builder("phonebook.refresh.reuse")
+                .description("Rotated refresh tokens presented again; each one revokes its family")
+                .register(registry);
+        Gauge.builder("phonebook.refresh.tokens", byToken, ConcurrentHashMap::size).register(registry);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /** Tokens for a successful login: a new refresh token family starts here. */
+    public TokenResponse issue(Authentication authentication) {
+        Family family = new Family(authentication.getName());
+        byUser.compute(family.username, (user, families) -> {
+            Deque<Family> live = families == null ? new ArrayDeque<>() : families;
+            live.removeIf(this::prune);
+            while (live.size() >= maxFamilies) {
+                revoke(live.removeFirst());
+            }
+            live.addLast(family);
+            return live;
+        });
+        List<String> authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        return issue(family, authorities);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. The user
+     * is looked up again (from the UserDetails cache) so deleted users and role changes
+     * take effect on the next refresh.
+     */
+    public TokenResponse refresh(String token) {
+        String digest = token == null ? null : digest(token);
+        Family family = digest == null ? null : byToken.get(digest);
+        if (family == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        synchronized (family) {
+            if (family.dead()) {
+                throw new BadCredentialsException("Invalid refresh token");
+            }
+            if (!digest.equals(family.current)) {
+                reuse.increment();
+                log.warn("Refresh token reused for {}; revoking its family", family.username);
+                revoke(family);
+                throw new BadCredentialsException("Invalid refresh token");
+            }
+            // Spent from here on, even if the user lookup below fails
+            family.current = null;
+            family.rotated.addLast(new Rotated(digest, System.currentTimeMillis()));
+        }
+        UserDetails user = users.loadUserByUsername(family.username);
+        return issue(family, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    /** Revokes the family of {@code token}. Unknown tokens are ignored, as RFC 7009 asks. */
+    public void revoke(String token) {
+        Family family = token == null ? null : byToken.get(digest(token));
+        if (family != null) {
+            revoke(family);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    void sweep() {
+        for (String user : byUser.keySet()) {
+            byUser.computeIfPresent(user, (key, families) -> {
+                families.removeIf(this::prune);
+                return families.isEmpty() ? null : families;
+            });
+        }
+    }
+
+    private TokenResponse issue(Family family, Collection<String> authorities) {
+        String access = SecurityConfig.encodeJwt(jwtEncoder, family.username, authorities, accessTtl);
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refresh = BASE64.encodeToString(bytes);
+        String digest = digest(refresh);
+        synchronized (family) {
+            if (family.revoked) {
+                // Revoked while this login or refresh was in flight
+                throw new BadCredentialsException("Invalid refresh token");
+            }
+            family.current = digest;
+            family.expiresAt = System.currentTimeMillis() + refreshTtl.toMillis();
+            byToken.put(digest, family);
+            while (family.rotated.size() > MAX_ROTATED) {
+                byToken.remove(family.rotated.removeFirst().digest());
+            }
+        }
+        return new TokenResponse("Bearer", access, accessTtl.toSeconds(), family.username, refresh);
+    }
+
+    private void revoke(Family family) {
+        synchronized (family) {
+            family.revoked = true;
+            prune(family);
+        }
+    }
+
+    // Forgets what the family no longer needs: rotated tokens past the reuse window, or
+    // every token once it is revoked or expired. True when the family itself is gone.
+    private boolean prune(Family family) {
+        synchronized (family) {
+            long now = System.currentTimeMillis();
+            boolean dead = family.dead();
+            while (!family.rotated.isEmpty() && (dead || family.rotated.peekFirst().at() + reuseWindowMillis <= now)) {
+                byToken.remove(family.rotated.removeFirst().digest());
+            }
+            if (dead && family.current != null) {
+                byToken.remove(family.current);
+                family.current = null;
+            }
+            return dead;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            return BASE64.encodeToString(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Every token from one login; the mutable fields are guarded by the instance's monitor
+    private static final class Family {
+        final String username;
+        String current;
+        final Deque<Rotated> rotated = new ArrayDeque<>();
+        long expiresAt = Long.MAX_VALUE;
+        boolean revoked;
+
+        Family(String username) {
+            this.username = username;
+        }
+
+        boolean dead() {
+            return revoked || System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    private record Rotated(String digest, long at) {
+    }
+}
@@ -0,0 +1,264 @@
+package org.redmath.Service;
+
+import org.redmath.Model.ContactMatch;
+import org.redmath.Model.ContactSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant search over contact names and emails. Each field is split into
+ * trigrams (words padded the way pg_trgm does it) and every trigram maps to a sorted
+ * int array of contact ids. A query is scored per field by Jaccard similarity of
+ * trigram sets and a contact keeps its best field score. Only the local part of an
+ * email is indexed; the domain is shared by many contacts and would only dilute scores.
+ */
+@Component
+public class TrigramIndex implements ContactIndex {
+    public static final int MAX_RESULTS = 50;
+    public static final double MIN_SIMILARITY = 0.3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, ContactSnapshot> byId = new HashMap<>();
+    private final Field names = new Field();
+    private final Field emails = new Field();
+
+    public List<ContactMatch> search(String query, int limit) {
+        long[] grams = trigrams(query);
+        if (grams.length == 0) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> best = new HashMap<>();
+            names.score(grams, best);
+            emails.score(grams, best);
+            return best.entrySet().stream()
+                    .filter(e -> e.getValue() >= MIN_SIMILARITY)
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(max)
+                    .map(e -> new ContactMatch(byId.get(e.getKey()), e.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits the trigram work across the common pool and fills the name and email
+     * postings side by side. Contacts are appended in id order so no posting list
+     * needs sorting afterwards.
+     */
+    @Override
+    public void rebuild(List<ContactSnapshot> contacts) {
+        List<Prepared> prepared = contacts.parallelStream()
+                .sorted(Comparator.comparingInt(ContactSnapshot::id))
+                .map(c -> new Prepared(c, trigrams(c.name()), trigrams(localPart(c.email()))))
+                .toList();
+        lock.writeLock().lock();
+        try {
+            clearUnlocked();
+            CompletableFuture<Void> nameBuild = CompletableFuture.runAsync(
+                    () -> prepared.forEach(p -> names.add(p.contact().id(), p.name())));
+            prepared.forEach(p -> {
+                emails.add(p.contact().id(), p.email());
+                byId.put(p.contact().id(), p.contact());
+            });
+            nameBuild.join();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(ContactSnapshot contact) {
+        long[] nameGrams = trigrams(contact.name());
+        long[] emailGrams = trigrams(localPart(contact.email()));
+        lock.writeLock().lock();
+        try {
+            if (ContactIndex.isNewer(byId.get(contact.id()), contact)) {
+                return;
+            }
+            removeUnlocked(contact.id());
+            names.add(contact.id(), nameGrams);
+            emails.add(contact.id(), emailGrams);
+            byId.put(contact.id(), contact);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearUnlocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(int id) {
+        if (byId.remove(id) != null) {
+            names.remove(id);
+            emails.remove(id);
+        }
+    }
+
+    private void clearUnlocked() {
+        byId.clear();
+        names.clear();
+        emails.clear();
+    }
+
+    private static String localPart(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        return at < 0 ? email : email.substring(0, at);
+    }
+
+    /** Distinct trigrams of {@code text}, each packed as three 16-bit chars, in ascending order. */
+    static long[] trigrams(String text) {
+        if (text == null || text.isBlank()) {
+            return new long[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        long[] grams = new long[normalized.length() * 3];
+        int count = 0;
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(grams, 0, count).sorted().distinct().toArray();
+    }
+
+    private record Prepared(ContactSnapshot contact, long[] name, long[] email) {
+    }
+
+    /** Posting lists for one field plus each contact's trigrams, needed for removal and scoring. */
+    private static final class Field {
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private final Map<Integer, long[]> gramsById = new HashMap<>();
+
+        void add(int id, long[] grams) {
+            if (grams.length == 0) {
+                return;
+            }
+            gramsById.put(id, grams);
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, k -> new Postings()).add(id);
+            }
+        }
+
+        void remove(int id) {
+            long[] grams = gramsById.remove(id);
+            if (grams == null) {
+                return;
+            }
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        void clear() {
+            postings.clear();
+            gramsById.clear();
+        }
+
+        void score(long[] query, Map<Integer, Double> best) {
+            Map<Integer, int[]> shared = new HashMap<>();
+            for (long gram : query) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    shared.computeIfAbsent(list.ids[i], k -> new int[1])[0]++;
+                }
+            }
+            shared.forEach((id, count) -> {
+                int common = count[0];
+                double similarity = (double) common / (query.length + gramsById.get(id).length - common);
+                best.merge(id, similarity, Math::max);
+            });
+        }
+    }
+
+    /** Sorted, growable int array of contact ids. */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == 0 || id > ids[size - 1]) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            int insert = -at - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
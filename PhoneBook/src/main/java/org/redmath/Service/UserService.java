@@ -1,7 +1,13 @@
 package org.redmath.Service;
 
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.redmath.Config.CacheConfig;
+import org.redmath.Config.MetricsConfig;
 import org.redmath.Model.User;
 import org.redmath.Repository.UserRepo;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,15 +22,21 @@ import java.util.Optional;
 
 //
 
+@Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserService implements UserDetailsService{
 
     private final UserRepo rep;
     PasswordEncoder passwordEncoder;
+    // Null when phonebook.users.cache.enabled=false
+    private final Cache userCache;
 
-    public UserService(UserRepo repo, PasswordEncoder ps) {
+    public UserService(UserRepo repo, PasswordHashingPool hashing, CacheManager cacheManager) {
         this.rep = repo;
-        this.passwordEncoder = ps;
+        // Hashing runs on the bounded pool, never on the request thread
+        this.passwordEncoder = hashing.asPasswordEncoder();
+        this.userCache = cacheManager.getCache(CacheConfig.USERS);
     }
 
     public List<User> getUsers() {
@@ -33,20 +45,28 @@ public class UserService implements UserDetailsService{
 
     public void save(User u) {
         u.setPassword(passwordEncoder.encode(u.getPassword()));
-        System.out.println("USER IS: " + u.getRole());
+        log.debug("Saving user {} with role {}", u.getUsername(), u.getRole());
         rep.save(u);
+        evict(u.getUsername());
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        System.out.println("USER LOADER HIT");
-        User user = rep.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        CachedUser cached = userCache == null ? null : userCache.get(username, CachedUser.class);
+        if (cached == null) {
+            User user = rep.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            cached = new CachedUser(user.getUsername(), user.getPassword(), user.getRole());
+            if (userCache != null) {
+                userCache.put(username, cached);
+            }
+        }
 
+        // Always hand out a fresh UserDetails: authentication erases credentials on the instance it gets
         return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                List.of(new SimpleGrantedAuthority(user.getRole()))
+                cached.username(),
+                cached.password(),
+                List.of(new SimpleGrantedAuthority(cached.role()))
         );
     }
 
@@ -57,6 +77,16 @@ public class UserService implements UserDetailsService{
         }
 
         rep.deleteById(id);
+        evict(user.get().getUsername());
         return true;
     }
+
+    private void evict(String username) {
+        if (userCache != null && username != null) {
+            userCache.evict(username);
+        }
+    }
+
+    private record CachedUser(String username, String password, String role) {
+    }
 }
@@ -0,0 +1,61 @@
+package com.redmath.testing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.redmath.Config.CachingJwtDecoder;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingJwtDecoderTest {
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, registry);
+
+    @Test
+    void testVerifiedTokenIsDecodedOnce() {
+        when(delegate.decode("good")).thenReturn(jwt("good", Instant.now().plusSeconds(3600)));
+
+        Jwt first = decoder.decode("good");
+        Jwt second = decoder.decode("good");
+
+        assertSame(first, second);
+        verify(delegate, times(1)).decode("good");
+        assertEquals(1, registry.get("phonebook.jwt.verification").timer().count());
+        assertEquals(0.5, registry.get("phonebook.jwt.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void testExpiredTokenIsNotServedFromCache() {
+        when(delegate.decode("stale")).thenReturn(jwt("stale", Instant.now().minusSeconds(1)));
+
+        decoder.decode("stale");
+        decoder.decode("stale");
+
+        verify(delegate, times(2)).decode("stale");
+    }
+
+    @Test
+    void testRejectedTokenIsNotCached() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("bad signature"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("talha")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.redmath.testing;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.redmath.Config.CacheConfig;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Service.ListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+public class ContactCacheTest {
+
+    @Autowired
+    private ListService listService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void testRepeatedReadsAreServedFromCache() {
+        listService.getAllContacts();
+        long hitsBefore = stats().hitCount();
+
+        List<Contact> first = listService.getAllContacts();
+        List<Contact> second = listService.getAllContacts();
+
+        assertSame(first, second);
+        assertEquals(hitsBefore + 2, stats().hitCount());
+    }
+
+    @Test
+    void testWriteInvalidatesCachedListing() {
+        int before = listService.getAllContacts().size();
+
+        listService.addToBook(new Contact("Cache Buster", "4242"));
+
+        List<Contact> after = listService.getAllContacts();
+        assertEquals(before + 1, after.size());
+        assertTrue(after.stream().anyMatch(c -> "Cache Buster".equals(c.getName())));
+    }
+
+    private CacheStats stats() {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.CONTACTS);
+        return cache.getNativeCache().stats();
+    }
+}
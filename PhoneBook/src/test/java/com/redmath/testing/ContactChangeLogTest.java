@@ -0,0 +1,85 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Model.ContactChange;
+import org.redmath.Model.ContactDelta;
+import org.redmath.Model.ContactSnapshot;
+import org.redmath.Service.ContactChangeEvent;
+import org.redmath.Service.ContactChangeLog;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactChangeLogTest {
+
+    private final ContactChangeLog log = new ContactChangeLog(4);
+
+    @Test
+    void testDeltaKeepsLatestChangePerContact() {
+        String token = log.currentToken();
+        log.onContactChange(ContactChangeEvent.created(new ContactSnapshot(1, "Talha", null, "111", 0L)));
+        log.onContactChange(ContactChangeEvent.created(new ContactSnapshot(2, "Ahmad", null, "222", 0L)));
+        log.onContactChange(ContactChangeEvent.updated(new ContactSnapshot(1, "Talha B", null, "111", 1L)));
+        log.onContactChange(ContactChangeEvent.deleted(2));
+
+        ContactDelta delta = log.since(token, 100);
+        assertFalse(delta.resync());
+        assertFalse(delta.hasMore());
+        assertEquals(List.of(1, 2), delta.changes().stream().map(ContactChange::id).toList());
+        assertEquals("Talha B", delta.changes().get(0).contact().name());
+        assertEquals(ContactChange.Op.DELETE, delta.changes().get(1).op());
+        assertNull(delta.changes().get(1).contact());
+
+        assertTrue(log.since(delta.token(), 100).changes().isEmpty());
+    }
+
+    @Test
+    void testLimitPagesThroughChanges() {
+        String token = log.currentToken();
+        for (int id = 1; id <= 3; id++) {
+            log.onContactChange(ContactChangeEvent.created(new ContactSnapshot(id, "C", null, "1", 0L)));
+        }
+
+        ContactDelta first = log.since(token, 2);
+        assertTrue(first.hasMore());
+        assertEquals(2, first.changes().size());
+        ContactDelta second = log.since(first.token(), 2);
+        assertFalse(second.hasMore());
+        assertEquals(List.of(3), second.changes().stream().map(ContactChange::id).toList());
+    }
+
+    @Test
+    void testResyncWhenTokenIsUnusable() {
+        String token = log.currentToken();
+        for (int id = 1; id <= 5; id++) {
+            log.onContactChange(ContactChangeEvent.created(new ContactSnapshot(id, "C", null, "1", 0L)));
+        }
+        // Five changes do not fit in a ring of four
+        assertTrue(log.since(token, 100).resync());
+        assertTrue(log.since(null, 100).resync());
+        assertTrue(log.since("other.0", 100).resync());
+
+        String recent = log.currentToken();
+        log.onContactChange(ContactChangeEvent.cleared());
+        ContactDelta delta = log.since(recent, 100);
+        assertTrue(delta.resync());
+        assertTrue(log.since(delta.token(), 100).changes().isEmpty());
+        assertFalse(log.since(delta.token(), 100).resync());
+    }
+
+    @Test
+    void testOutOfOrderCommitsAreDropped() {
+        String token = log.currentToken();
+        log.onContactChange(ContactChangeEvent.updated(new ContactSnapshot(1, "Newer", null, "111", 3L)));
+        // An older commit whose listener ran late
+        log.onContactChange(ContactChangeEvent.updated(new ContactSnapshot(1, "Older", null, "111", 2L)));
+        log.onContactChange(ContactChangeEvent.deleted(2));
+        log.onContactChange(ContactChangeEvent.updated(new ContactSnapshot(2, "Gone", null, "222", 5L)));
+
+        ContactDelta delta = log.since(token, 100);
+        assertEquals(2, delta.changes().size());
+        assertEquals("Newer", delta.changes().get(0).contact().name());
+        assertEquals(ContactChange.Op.DELETE, delta.changes().get(1).op());
+    }
+}
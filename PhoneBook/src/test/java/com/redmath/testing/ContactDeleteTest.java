@@ -0,0 +1,104 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.redmath.Service.ContactVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactDeleteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContactVersion contactVersion;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testDeleteSingleContact() throws Exception {
+        int id = contactRepo.save(new Contact("Delete Me", "1010")).getId();
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/deleteContact/" + id).with(csrf()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertFalse(contactRepo.existsById(id));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/deleteContact/" + id).with(csrf()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testBulkDeleteAcrossBatches() throws Exception {
+        List<Contact> batch = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            batch.add(new Contact("Bulk Contact", String.valueOf(7_000_000 + i)));
+        }
+        List<Integer> ids = new ArrayList<>(contactRepo.saveAll(batch).stream().map(Contact::getId).toList());
+        int kept = ids.remove(ids.size() - 1);
+        // Unknown ids and duplicates are ignored
+        List<Integer> request = new ArrayList<>(ids);
+        request.add(ids.get(0));
+        request.add(-1);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/deleteContacts")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.requested").value(request.size()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted").value(ids.size()));
+
+        assertTrue(contactRepo.findAllById(ids).isEmpty());
+        assertTrue(contactRepo.existsById(kept));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testBulkDeleteOfUnknownIdsChangesNothing() throws Exception {
+        long version = contactVersion.current();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/deleteContacts")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[-1, -2, -3]"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted").value(0));
+
+        // No change events, so listing caches and ETags stay valid
+        assertEquals(version, contactVersion.current());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testBulkDeleteRequiresAdmin() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/deleteContacts")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 3]"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+}
@@ -0,0 +1,58 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Service.ListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactEtagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ListService listService;
+
+    @Test
+    public void testUnchangedListingIsNotModified() throws Exception {
+        for (String path : new String[]{"/api/getContacts", "/api/contacts"}) {
+            MockHttpServletResponse first = mockMvc.perform(MockMvcRequestBuilders.get(path))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse();
+            String etag = first.getHeader("ETag");
+            assertNotNull(etag, path);
+            assertEquals(1, first.getHeaders("ETag").size(), path);
+            assertFalse(etag.startsWith("W/"), path);
+
+            mockMvc.perform(MockMvcRequestBuilders.get(path).header("If-None-Match", etag))
+                    .andExpect(MockMvcResultMatchers.status().isNotModified())
+                    .andExpect(MockMvcResultMatchers.header().string("ETag", etag))
+                    .andExpect(MockMvcResultMatchers.content().string(""));
+        }
+    }
+
+    @Test
+    public void testChangeInvalidatesEtag() throws Exception {
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/getContacts"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        listService.addToBook(new Contact("Etag Change", "4440001"));
+
+        String next = mockMvc.perform(MockMvcRequestBuilders.get("/api/getContacts").header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.name == 'Etag Change')]").exists())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, next);
+    }
+}
@@ -0,0 +1,67 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser(username = "talha", roles = "ADMIN")
+    public void testExportWritesOneContactPerLine() throws Exception {
+        contactRepo.saveAll(List.of(new Contact("Export One", "101"), new Contact("Export Two", "102")));
+        List<Integer> expected = contactRepo.findAll().stream().map(Contact::getId).sorted().toList();
+
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.get("/api/exportContacts"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        // The long timeout is set for the export only, not through spring.mvc.async.request-timeout
+        assertEquals(Duration.ofHours(1).toMillis(), pending.getRequest().getAsyncContext().getTimeout());
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(pending))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.endsWith("\n"));
+        List<Integer> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            exported.add(row.get("id").asInt());
+        }
+        assertEquals(expected, exported);
+    }
+
+    @Test
+    public void testExportRequiresAuthentication() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/exportContacts"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+}
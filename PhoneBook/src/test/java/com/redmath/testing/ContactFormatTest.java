@@ -0,0 +1,103 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Model.ContactPage;
+import org.redmath.Repository.ContactRep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactFormatTest {
+    private static final String CBOR = "application/cbor";
+    private static final String SMILE = "application/x-jackson-smile";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        contactRepo.save(new Contact("Format Contact", "7770001"));
+    }
+
+    @Test
+    void testBinaryFormatsCarryTheSameContacts() throws Exception {
+        List<Contact> json = objectMapper.readValue(get("/api/getContacts", MediaType.APPLICATION_JSON_VALUE)
+                .getContentAsByteArray(), new TypeReference<>() { });
+        assertFalse(json.isEmpty());
+
+        for (var format : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            String type = format.getFactory() instanceof CBORFactory ? CBOR : SMILE;
+            MockHttpServletResponse response = get("/api/getContacts", type);
+            assertEquals(type, response.getContentType());
+            List<Contact> decoded = format.readValue(response.getContentAsByteArray(), new TypeReference<>() { });
+            assertEquals(json.stream().map(Contact::getName).toList(), decoded.stream().map(Contact::getName).toList());
+            assertEquals(json.stream().map(Contact::getId).toList(), decoded.stream().map(Contact::getId).toList());
+        }
+    }
+
+    @Test
+    void testPageInCbor() throws Exception {
+        MockHttpServletResponse response = get("/api/contacts", CBOR);
+        ContactPage page = new ObjectMapper(new CBORFactory()).readValue(response.getContentAsByteArray(), ContactPage.class);
+        assertFalse(page.contacts().isEmpty());
+        assertTrue(response.getHeaders("Vary").contains("Accept"));
+    }
+
+    @Test
+    void testEachFormatHasItsOwnEtag() throws Exception {
+        for (String path : new String[]{"/api/getContacts", "/api/contacts"}) {
+            String json = get(path, MediaType.APPLICATION_JSON_VALUE).getHeader("ETag");
+            String cbor = get(path, CBOR).getHeader("ETag");
+            String smile = get(path, SMILE).getHeader("ETag");
+            assertEquals(3, new HashSet<>(List.of(json, cbor, smile)).size(), path);
+            assertEquals(json, get(path, "*/*").getHeader("ETag"), path);
+
+            // A JSON validator must not turn into a 304 for a CBOR request
+            mockMvc.perform(MockMvcRequestBuilders.get(path).header("Accept", CBOR).header("If-None-Match", json))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.header().string("ETag", cbor));
+            mockMvc.perform(MockMvcRequestBuilders.get(path).header("Accept", CBOR).header("If-None-Match", cbor))
+                    .andExpect(MockMvcResultMatchers.status().isNotModified());
+        }
+    }
+
+    @Test
+    void testBrowsersStillGetJson() throws Exception {
+        for (String accept : new String[]{"text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8", "*/*"}) {
+            assertEquals(MediaType.APPLICATION_JSON_VALUE, get("/api/getContacts", accept).getContentType(), accept);
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/getContacts"))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private MockHttpServletResponse get(String path, String accept) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get(path).header("Accept", accept))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,93 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Repository.ContactRep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Test
+    @WithMockUser(username = "talha", roles = "ADMIN")
+    public void testImportReportsRowErrors() throws Exception {
+        String body = """
+                {"name": "Import One", "number": "1001"}
+                {"name": "Import Two", "number": "1002", "email": "two@example.com"}
+                {"name": "Broken", "number":
+
+                {"name": "Bad 123", "number": "1003"}
+                {"id": 99999, "name": "Import Three", "number": "1004"}
+                """;
+        long before = contactRepo.count();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/importContacts")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].line").value(5));
+
+        assertEquals(before + 3, contactRepo.count());
+
+        // Imported rows reach the in-memory indexes once their chunk commits
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/autocomplete").param("prefix", "import t"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "talha", roles = "ADMIN")
+    public void testDatabaseRejectionOnlyCostsTheBadRow() throws Exception {
+        // Passes bean validation but not the 255 character column
+        String tooLong = "x".repeat(300) + "@example.com";
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            String email = i == 6 ? tooLong : "chunk" + i + "@example.com";
+            body.append("{\"name\": \"Chunk Row\", \"number\": \"55").append(i)
+                    .append("\", \"email\": \"").append(email).append("\"}\n");
+        }
+        long before = contactRepo.count();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/importContacts")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content(body.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(9))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(7));
+
+        assertEquals(before + 9, contactRepo.count());
+    }
+
+    @Test
+    @WithMockUser(username = "ahmad", roles = "USER")
+    public void testImportRequiresAdmin() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/importContacts")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\": \"Nope\", \"number\": \"1\"}\n"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+}
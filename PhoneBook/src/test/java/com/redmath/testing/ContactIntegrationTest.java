@@ -301,7 +301,7 @@ public class ContactIntegrationTest {
     @WithMockUser(username = "talha", roles = "ADMIN")
     public void testDeleteAllContacts() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.delete("/api/deleteAll"))
-                .andExpect(MockMvcResultMatchers.status().isOk());
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
     }
 
     @Test
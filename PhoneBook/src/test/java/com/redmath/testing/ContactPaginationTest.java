@@ -0,0 +1,100 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        contactRepo.saveAll(List.of(
+                new Contact("Zara", "111"),
+                new Contact("Adam", "222"),
+                new Contact("Maya", "333"),
+                new Contact("Adam", "444"),
+                new Contact("Bilal", "555")));
+    }
+
+    @Test
+    void testWalkPagesById() throws Exception {
+        List<Integer> expected = contactRepo.findAll().stream().map(Contact::getId).sorted().toList();
+        List<Integer> seen = new ArrayList<>();
+        for (JsonNode page : walk("id")) {
+            page.get("contacts").forEach(c -> seen.add(c.get("id").asInt()));
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testWalkPagesByName() throws Exception {
+        List<Integer> expected = contactRepo.findAll().stream()
+                .sorted(Comparator.comparing(Contact::getName).thenComparing(Contact::getId))
+                .map(Contact::getId).toList();
+        List<Integer> seen = new ArrayList<>();
+        for (JsonNode page : walk("name")) {
+            assertTrue(page.get("contacts").size() <= 2);
+            page.get("contacts").forEach(c -> seen.add(c.get("id").asInt()));
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testCursorFromOtherSortIsRejected() throws Exception {
+        String cursor = walk("id").get(0).get("nextCursor").asText();
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/contacts")
+                        .param("sort", "name").param("cursor", cursor))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void testUnknownSortIsRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/contacts").param("sort", "email"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private List<JsonNode> walk(String sort) throws Exception {
+        List<JsonNode> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = MockMvcRequestBuilders.get("/api/contacts").param("sort", sort).param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            pages.add(page);
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        return pages;
+    }
+}
@@ -0,0 +1,116 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class ContactPatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Test
+    public void testPatchChangesOnlyGivenFields() throws Exception {
+        Contact contact = contactRepo.save(new Contact("Patch Me", "5551234"));
+        long version = contact.getVersion();
+
+        mockMvc.perform(patch(contact.getId(), "{\"name\":\"Patched\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"" + (version + 1) + "\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value("Patched"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.number").value("5551234"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version").value(version + 1));
+
+        Contact stored = contactRepo.findById(contact.getId()).orElseThrow();
+        assertEquals("Patched", stored.getName());
+        assertEquals("5551234", stored.getNumber());
+    }
+
+    @Test
+    public void testStaleIfMatchIsRejected() throws Exception {
+        Contact contact = contactRepo.save(new Contact("Stale Edit", "5559876"));
+        String etag = "\"" + contact.getVersion() + "\"";
+
+        mockMvc.perform(patch(contact.getId(), "{\"number\":\"111\"}").header("If-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(patch(contact.getId(), "{\"number\":\"222\"}").header("If-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+
+        assertEquals("111", contactRepo.findById(contact.getId()).orElseThrow().getNumber());
+    }
+
+    @Test
+    public void testStaleBodyVersionIsRejected() throws Exception {
+        Contact contact = contactRepo.save(new Contact("Stale Body", "5550000"));
+
+        mockMvc.perform(patch(contact.getId(), "{\"name\":\"Other\",\"version\":" + (contact.getVersion() + 5) + "}"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    public void testInvalidPatchIsRejected() throws Exception {
+        Contact contact = contactRepo.save(new Contact("Valid Name", "5551111"));
+
+        mockMvc.perform(patch(contact.getId(), "{\"number\":\"12-34\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testBlankNameIsRejected() throws Exception {
+        Contact contact = contactRepo.save(new Contact("Not Blank", "5552222"));
+
+        mockMvc.perform(patch(contact.getId(), "{\"name\":\"   \"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        assertEquals("Not Blank", contactRepo.findById(contact.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    public void testPatchUnknownContact() throws Exception {
+        mockMvc.perform(patch(999_999, "{\"name\":\"Nobody\"}"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testPutWithoutVersionStillOverwrites() throws Exception {
+        Contact contact = contactRepo.save(new Contact("Put Target", "5552222"));
+        mockMvc.perform(patch(contact.getId(), "{\"name\":\"Moved On\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/updateContact")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + contact.getId() + ",\"name\":\"Put Wins\",\"number\":\"5553333\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Contact stored = contactRepo.findById(contact.getId()).orElseThrow();
+        assertEquals("Put Wins", stored.getName());
+        assertEquals(contact.getVersion() + 2, stored.getVersion());
+    }
+
+    private static MockHttpServletRequestBuilder patch(int id, String body) {
+        return MockMvcRequestBuilders.patch("/api/contacts/" + id)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
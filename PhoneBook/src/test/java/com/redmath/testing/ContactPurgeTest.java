@@ -0,0 +1,91 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.redmath.Service.ContactChangeLog;
+import org.redmath.Service.ContactVersion;
+import org.redmath.Service.NameIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactPurgeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Autowired
+    private NameIndex nameIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContactVersion contactVersion;
+
+    @Autowired
+    private ContactChangeLog changeLog;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testDeleteAllRunsAsJob() throws Exception {
+        List<Contact> batch = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            batch.add(new Contact("Purge Contact", String.valueOf(8_000_000 + i)));
+        }
+        contactRepo.saveAll(batch);
+        long version = contactVersion.current();
+        String token = changeLog.currentToken();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.delete("/api/deleteAll").with(csrf()))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(body).get("jobId").asText();
+
+        JsonNode status = null;
+        for (int attempt = 0; attempt < 300; attempt++) {
+            status = objectMapper.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/api/deleteAll/" + jobId))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (!status.get("state").asText().equals("RUNNING")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        assertEquals("COMPLETED", status.get("state").asText());
+        assertTrue(status.get("deleted").asLong() >= 2500);
+        assertEquals(0, contactRepo.count());
+        assertTrue(nameIndex.complete("Purge", 10).isEmpty());
+        // One CLEARED for the whole job, not one DELETED per row
+        assertEquals(version + 1, contactVersion.current());
+        assertTrue(changeLog.since(token, 10).resync());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testUnknownJobIsNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/deleteAll/no-such-job"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
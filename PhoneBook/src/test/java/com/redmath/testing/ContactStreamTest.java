@@ -0,0 +1,79 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Service.ContactChangeLog;
+import org.redmath.Service.ListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ListService listService;
+
+    @Autowired
+    private ContactChangeLog changeLog;
+
+    @Test
+    public void testCommittedChangesArePushed() throws Exception {
+        MockHttpServletResponse stream = subscribe(null);
+
+        Contact contact = new Contact("Stream Live", "6660001");
+        listService.addToBook(contact);
+        listService.deleteContact(String.valueOf(contact.getId()));
+
+        String events = await(stream, "event:delete");
+        assertTrue(events.indexOf("event:upsert") < events.indexOf("event:delete"));
+        assertTrue(events.contains("\"name\":\"Stream Live\""));
+        assertTrue(events.contains("id:" + changeLog.currentToken()));
+    }
+
+    @Test
+    public void testLastEventIdReplaysMissedChanges() throws Exception {
+        String token = changeLog.currentToken();
+        listService.addToBook(new Contact("Stream Missed", "6660002"));
+
+        String events = await(subscribe(token), "Stream Missed");
+        assertTrue(events.contains("event:upsert"));
+    }
+
+    @Test
+    public void testUnknownLastEventIdStartsWithResync() throws Exception {
+        await(subscribe("stale.1"), "event:resync");
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        var request = MockMvcRequestBuilders.get("/api/contacts/stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static String await(MockHttpServletResponse stream, String expected) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String content = stream.getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Stream never contained " + expected + ": " + stream.getContentAsString());
+    }
+}
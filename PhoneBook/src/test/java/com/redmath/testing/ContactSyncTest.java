@@ -0,0 +1,68 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Service.ListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class ContactSyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ListService listService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testChangesSinceToken() throws Exception {
+        JsonNode first = changes(null);
+        assertTrue(first.get("resync").asBoolean());
+        String token = first.get("token").asText();
+
+        Contact kept = new Contact("Sync Kept", "3330001");
+        listService.addToBook(kept);
+        Contact gone = new Contact("Sync Gone", "3330002");
+        listService.addToBook(gone);
+        listService.deleteContact(String.valueOf(gone.getId()));
+
+        JsonNode delta = changes(token);
+        assertFalse(delta.get("resync").asBoolean());
+        assertEquals(2, delta.get("changes").size());
+        assertEquals("UPSERT", delta.get("changes").get(0).get("op").asText());
+        assertEquals("Sync Kept", delta.get("changes").get(0).get("contact").get("name").asText());
+        assertEquals("DELETE", delta.get("changes").get(1).get("op").asText());
+        assertEquals(gone.getId(), delta.get("changes").get(1).get("id").asInt());
+
+        assertEquals(0, changes(delta.get("token").asText()).get("changes").size());
+    }
+
+    @Test
+    public void testForeignTokenForcesResync() throws Exception {
+        assertTrue(changes("1.0").get("resync").asBoolean());
+    }
+
+    private JsonNode changes(String since) throws Exception {
+        var request = MockMvcRequestBuilders.get("/api/contacts/changes");
+        if (since != null) {
+            request.param("since", since);
+        }
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,44 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class FormLoginTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testFormLoginIssuesToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/login")
+                        .with(csrf())
+                        .param("username", "ahmad")
+                        .param("password", "1234"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.token_type").value("Bearer"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.access_token").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email").value("ahmad"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.expires_in").value(3600))
+                .andExpect(MockMvcResultMatchers.content().contentType("application/json;charset=UTF-8"));
+    }
+
+    @Test
+    public void testFormLoginRejectsWrongPassword() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/login")
+                        .with(csrf())
+                        .param("username", "ahmad")
+                        .param("password", "wrong"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Invalid credentials"));
+    }
+}
@@ -0,0 +1,381 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-model load test: requests are issued at a constant arrival rate whether or not
+ * earlier ones have finished, and each latency is measured from the moment the request
+ * was <em>scheduled</em>, so a stalled server shows up in the percentiles instead of
+ * silently lowering the offered load. Off by default; run with
+ *
+ * <pre>mvn test -Dtest=LoadBenchmarkTest -Dbenchmark=load
+ *     [-Dload.rate=100] [-Dload.seconds=30] [-Dload.warmup.seconds=5] [-Dload.seed-rows=1000]
+ *     [-Dload.mix=getContacts=80,saveContact=10,updateContact=5,deleteContact=3,login=2]
+ *     [-Dload.slo=getContacts.p99=100,login.p999=2000] [-Dload.slo.max-error-rate=0.01]</pre>
+ *
+ * SLO thresholds are in milliseconds for p50, p99, p999 or max. The report, including the
+ * full latency distribution of every operation, is written to target/load-report.txt.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "load")
+public class LoadBenchmarkTest {
+
+    private static final String DEFAULT_MIX = "getContacts=80,saveContact=10,updateContact=5,deleteContact=3,login=2";
+    private static final String DEFAULT_SLO = "getContacts.p99=100,saveContact.p99=200,updateContact.p99=200,"
+            + "deleteContact.p99=200,login.p99=1000";
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    // Seeded admin account from the Liquibase changelog
+    private static final String USERNAME = "talha";
+    private static final String PASSWORD = "1234";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    enum Operation {
+        GET_CONTACTS("getContacts"),
+        SAVE_CONTACT("saveContact"),
+        UPDATE_CONTACT("updateContact"),
+        DELETE_CONTACT("deleteContact"),
+        LOGIN("login");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation of(String key) {
+            for (Operation op : values()) {
+                if (op.key.equals(key)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation: " + key);
+        }
+    }
+
+    @Test
+    void testLatencyWithinSlo() throws Exception {
+        int rate = Integer.getInteger("load.rate", 100);
+        int seedRows = Integer.getInteger("load.seed-rows", 1000);
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup.seconds", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.seconds", 30));
+        Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix", DEFAULT_MIX));
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.slo.max-error-rate", "0.01"));
+
+        try (ConfigurableApplicationContext app = start();
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(workers)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            // Every delete needs a row of its own; updates share a separate pool that is never deleted
+            long deletes = (long) Math.ceil(rate * share(mix, Operation.DELETE_CONTACT)
+                    * (warmup.toSeconds() + duration.toSeconds())) + 1;
+            List<Integer> ids = seed(app.getBean(ContactRep.class), seedRows + (int) deletes);
+            Target target = new Target(http, port, session(http, port),
+                    new ConcurrentLinkedQueue<>(ids.subList(0, (int) deletes)),
+                    List.copyOf(ids.subList((int) deletes, ids.size())));
+
+            run(target, mix, rate, warmup);
+            Map<Operation, Stats> stats = run(target, mix, rate, duration);
+
+            String report = report(stats, rate, duration);
+            System.out.println(report);
+            Files.writeString(Path.of("target", "load-report.txt"), report + "\n" + distributions(stats));
+
+            List<String> violations = checkSlo(stats, System.getProperty("load.slo", DEFAULT_SLO), maxErrorRate);
+            assertTrue(violations.isEmpty(), "SLO violated:\n" + String.join("\n", violations));
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Main.class).run(
+                "--server.port=0",
+                "--dburl=jdbc:h2:mem:load",
+                "--spring.jpa.show-sql=false",
+                // Every load client logs in from 127.0.0.1; the per-IP login limit would
+                // turn the login share of the mix into 429s and fail the error-rate SLO
+                "--phonebook.login.rate-limit.enabled=false");
+    }
+
+    private static List<Integer> seed(ContactRep repo, int rows) {
+        List<Integer> ids = new ArrayList<>(rows);
+        List<Contact> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Contact("Load Contact", String.valueOf(1_000_000 + i)));
+            if (batch.size() == 1000 || i == rows - 1) {
+                repo.saveAll(batch).forEach(contact -> ids.add(contact.getId()));
+                batch.clear();
+            }
+        }
+        Collections.shuffle(ids, new Random(42));
+        return ids;
+    }
+
+    /**
+     * Fetches one CSRF token and one access token for the whole run. The CSRF cookie is
+     * sent by hand rather than through a cookie jar, because each login rotates the
+     * cookie and would invalidate the token for requests already in flight.
+     */
+    private Session session(HttpClient http, int port) throws Exception {
+        HttpResponse<String> csrf = http.send(HttpRequest.newBuilder(URI.create(base(port) + "/csrf")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        String csrfToken = mapper.readTree(csrf.body()).get("token").asText();
+        Session anonymous = new Session(csrfToken, null);
+        HttpResponse<String> login = http.send(loginRequest(port, anonymous), HttpResponse.BodyHandlers.ofString());
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with " + login.statusCode() + ": " + login.body());
+        }
+        JsonNode token = mapper.readTree(login.body());
+        return new Session(csrfToken, token.get("access_token").asText());
+    }
+
+    private Map<Operation, Stats> run(Target target, Map<Operation, Integer> mix, int rate, Duration duration)
+            throws Exception {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation op : mix.keySet()) {
+            stats.put(op, new Stats());
+        }
+        Operation[] wheel = wheel(mix);
+        SplittableRandom random = new SplittableRandom(7);
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // If we fell behind, send immediately but still charge the delay to the request
+            Operation op = wheel[random.nextInt(wheel.length)];
+            Stats opStats = stats.get(op);
+            HttpRequest request = request(target, op, random);
+            if (request == null) {
+                opStats.errors.increment();
+                continue;
+            }
+            inFlight.add(target.http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() >= 400) {
+                            opStats.errors.increment();
+                        } else {
+                            opStats.latency.recordValue(Math.min(System.nanoTime() - intended, MAX_LATENCY));
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .get(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        return stats;
+    }
+
+    private HttpRequest request(Target target, Operation op, SplittableRandom random) {
+        String number = String.valueOf(5_000_000_000L + random.nextInt(1_000_000_000));
+        return switch (op) {
+            case GET_CONTACTS -> target.api("/api/getContacts").GET().build();
+            case SAVE_CONTACT -> target.api("/api/saveContact")
+                    .header("Content-Type", "application/json")
+                    .POST(json(Map.of("name", "Load Saved", "number", number)))
+                    .build();
+            case UPDATE_CONTACT -> {
+                int id = target.updatable.get(random.nextInt(target.updatable.size()));
+                yield target.api("/api/updateContact")
+                        .header("Content-Type", "application/json")
+                        .PUT(json(Map.of("id", id, "name", "Load Updated", "number", number)))
+                        .build();
+            }
+            case DELETE_CONTACT -> {
+                Integer id = target.deletable.poll();
+                yield id == null ? null : target.api("/api/deleteContact/" + id).DELETE().build();
+            }
+            case LOGIN -> loginRequest(target.port, target.session);
+        };
+    }
+
+    private static HttpRequest loginRequest(int port, Session session) {
+        String form = "username=" + URLEncoder.encode(USERNAME, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(session.csrfToken, StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(URI.create(base(port) + "/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Cookie", "XSRF-TOKEN=" + session.csrfToken)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private HttpRequest.BodyPublisher json(Map<String, Object> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base(int port) {
+        return "http://localhost:" + port;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.of(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operations: " + mix);
+        }
+        return weights;
+    }
+
+    private static double share(Map<Operation, Integer> mix, Operation op) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        return mix.getOrDefault(op, 0) / (double) total;
+    }
+
+    // One slot per unit of weight, so a uniform pick follows the configured mix
+    private static Operation[] wheel(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((op, weight) -> slots.addAll(Collections.nCopies(weight, op)));
+        return slots.toArray(Operation[]::new);
+    }
+
+    private static List<String> checkSlo(Map<Operation, Stats> stats, String slo, double maxErrorRate) {
+        List<String> violations = new ArrayList<>();
+        for (String entry : slo.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split("=");
+            String[] key = parts[0].split("\\.");
+            Stats opStats = stats.get(Operation.of(key[0]));
+            if (opStats == null) {
+                continue;
+            }
+            double limit = Double.parseDouble(parts[1]);
+            double actual = millis(key[1].equals("max") ? opStats.latency.getMaxValue()
+                    : opStats.latency.getValueAtPercentile(percentile(key[1])));
+            if (actual > limit) {
+                violations.add(String.format("%s %s = %.2f ms > %.2f ms", key[0], key[1], actual, limit));
+            }
+        }
+        stats.forEach((op, opStats) -> {
+            double errorRate = opStats.errorRate();
+            if (errorRate > maxErrorRate) {
+                violations.add(String.format("%s error rate = %.4f > %.4f", op.key, errorRate, maxErrorRate));
+            }
+        });
+        return violations;
+    }
+
+    // p50 -> 50, p99 -> 99, p999 -> 99.9, p9999 -> 99.99
+    private static double percentile(String name) {
+        String digits = name.substring(1);
+        return digits.length() <= 2 ? Double.parseDouble(digits)
+                : Double.parseDouble(digits.substring(0, 2) + "." + digits.substring(2));
+    }
+
+    private static String report(Map<Operation, Stats> stats, int rate, Duration duration) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("offered %d req/s for %ds", rate, duration.toSeconds()));
+        lines.add(String.format("%-14s %8s %8s %10s %10s %10s %10s", "operation", "ok", "errors",
+                "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        stats.forEach((op, s) -> lines.add(String.format("%-14s %8d %8d %10.2f %10.2f %10.2f %10.2f", op.key,
+                s.latency.getTotalCount(), s.errors.sum(),
+                millis(s.latency.getValueAtPercentile(50)), millis(s.latency.getValueAtPercentile(99)),
+                millis(s.latency.getValueAtPercentile(99.9)), millis(s.latency.getMaxValue()))));
+        return String.join("\n", lines);
+    }
+
+    private static String distributions(Map<Operation, Stats> stats) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            stats.forEach((op, s) -> {
+                out.println();
+                out.println(op.key);
+                // Scale nanoseconds to milliseconds in the output
+                s.latency.outputPercentileDistribution(out, 1_000_000.0);
+            });
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Session(String csrfToken, String accessToken) {
+    }
+
+    private record Target(HttpClient http, int port, Session session,
+                          ConcurrentLinkedQueue<Integer> deletable, List<Integer> updatable) {
+
+        HttpRequest.Builder api(String path) {
+            return HttpRequest.newBuilder(URI.create(base(port) + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Bearer " + session.accessToken)
+                    .header("Cookie", "XSRF-TOKEN=" + session.csrfToken)
+                    .header("X-XSRF-TOKEN", session.csrfToken);
+        }
+    }
+
+    private static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY, 3);
+        final LongAdder errors = new LongAdder();
+
+        double errorRate() {
+            long total = latency.getTotalCount() + errors.sum();
+            return total == 0 ? 0 : errors.sum() / (double) total;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.redmath.testing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.redmath.Config.LoginRateLimiter;
+import org.redmath.Main;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class LoginRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoginRateLimiter limiter;
+
+    @Test
+    public void testBurstThenRefusedPerUser() {
+        try (LoginRateLimiter limiter = new LoginRateLimiter(1, 3, 1000, 1000, 100, new SimpleMeterRegistry())) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(limiter.tryAcquire("10.0.0.1", "victim").isZero());
+            }
+            Duration wait = limiter.tryAcquire("10.0.0.2", " Victim ");
+            assertTrue(wait.toSeconds() > 50, wait.toString());
+            assertTrue(limiter.tryAcquire("10.0.0.1", "someone-else").isZero());
+        }
+    }
+
+    @Test
+    public void testFullLimiterRefusesNewKeys() {
+        try (LoginRateLimiter limiter = new LoginRateLimiter(1, 1, 1, 1, 2, new SimpleMeterRegistry())) {
+            assertTrue(limiter.tryAcquire("10.0.0.1", "first").isZero());
+            assertEquals(2, limiter.size());
+            // No room to track a new address or name: refused, not waved through untracked
+            assertFalse(limiter.tryAcquire("10.0.0.3", "third").isZero());
+            assertFalse(limiter.tryAcquire("10.0.0.1", "second").isZero());
+            assertEquals(2, limiter.size());
+        }
+    }
+
+    @Test
+    public void testFullLimiterSweepsInBackground() throws Exception {
+        // 60000 per minute refills a token every millisecond
+        try (LoginRateLimiter limiter = new LoginRateLimiter(60_000, 1, 60_000, 1, 2, new SimpleMeterRegistry())) {
+            assertTrue(limiter.tryAcquire("10.0.0.1", "first").isZero());
+            Thread.sleep(5);
+            // Finds the limiter full and queues a sweep instead of running it here
+            assertFalse(limiter.tryAcquire("10.0.0.2", null).isZero());
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (limiter.size() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, limiter.size());
+            assertTrue(limiter.tryAcquire("10.0.0.2", "second").isZero());
+            assertEquals(2, limiter.size());
+        }
+    }
+
+    @Test
+    public void testLoginIsThrottledBeforeHashing() throws Exception {
+        login("10.1.0.1", "mallory", "wrong").andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        // Use up the rest of the burst for that name from other addresses
+        for (int i = 1; i < 10; i++) {
+            limiter.tryAcquire("10.1.1." + i, "mallory");
+        }
+        login("10.1.0.2", "Mallory", "1234")
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists("Retry-After"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Too many login attempts"));
+    }
+
+    @Test
+    public void testLoginIsThrottledPerIp() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            limiter.tryAcquire("10.2.0.1", null);
+        }
+        login("10.2.0.1", "nobody", "wrong")
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+        login("10.2.0.2", "nobody", "wrong")
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Nested
+    @SpringBootTest(classes = Main.class, properties = "phonebook.login.rate-limit.enabled=false")
+    class Disabled {
+
+        @Autowired
+        private ObjectProvider<LoginRateLimiter> limiter;
+
+        @Test
+        public void testNoLimiterWhenDisabled() {
+            assertNull(limiter.getIfAvailable());
+        }
+    }
+
+    private ResultActions login(String ip, String username, String password) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/login")
+                .with(csrf())
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                })
+                .param("username", username)
+                .param("password", password));
+    }
+}
@@ -0,0 +1,79 @@
+package com.redmath.testing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Service.ListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ListService listService;
+
+    @Test
+    public void testServiceAndRepositoryCallsAreTimed() {
+        listService.getContactPage(null, null, 5);
+
+        assertNotNull(registry.find("phonebook.service")
+                .tag("class", ListService.class.getName()).tag("method", "getContactPage").timer());
+        assertNotNull(registry.find("spring.data.repository.invocations")
+                .tag("repository", "ContactRep").timer());
+    }
+
+    @Test
+    public void testValidationFailuresAreCounted() throws Exception {
+        double before = count("phonebook.validation.failures", "source", "api");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/saveContact")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"John123\",\"number\":\"12-34\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.number").exists());
+
+        assertEquals(before + 1, count("phonebook.validation.failures", "source", "api"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testNotFoundDeletesAreCounted() throws Exception {
+        double before = registry.counter("phonebook.contacts.delete.not.found").count();
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/deleteContact/999999").with(csrf()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        assertEquals(before + 1, registry.counter("phonebook.contacts.delete.not.found").count());
+    }
+
+    @Test
+    public void testIndexSizesAreGauged() {
+        for (String index : new String[]{"NameIndex", "PhoneIndex", "TrigramIndex"}) {
+            assertNotNull(registry.find("phonebook.index.size").tag("index", index).gauge(), index);
+        }
+    }
+
+    private double count(String name, String tag, String value) {
+        var counter = registry.find(name).tag(tag, value).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
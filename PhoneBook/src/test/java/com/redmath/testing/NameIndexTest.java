@@ -0,0 +1,67 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Model.ContactSnapshot;
+import org.redmath.Service.NameIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameIndexTest {
+
+    private final NameIndex index = new NameIndex();
+
+    @Test
+    void testPrefixIsCaseInsensitive() {
+        index.rebuild(List.of(
+                new ContactSnapshot(1, "Talha Bilal", null, "1", 0L),
+                new ContactSnapshot(2, "tariq", null, "2", 0L),
+                new ContactSnapshot(3, "Ahmad", null, "3", 0L)));
+
+        List<Integer> ids = index.complete("TA", 10).stream().map(ContactSnapshot::id).toList();
+        assertEquals(List.of(1, 2), ids);
+        assertTrue(index.complete("x", 10).isEmpty());
+    }
+
+    @Test
+    void testLimitIsApplied() {
+        index.rebuild(List.of(
+                new ContactSnapshot(1, "Ali", null, "1", 0L),
+                new ContactSnapshot(2, "Alia", null, "2", 0L),
+                new ContactSnapshot(3, "Alina", null, "3", 0L)));
+
+        assertEquals(2, index.complete("al", 2).size());
+    }
+
+    @Test
+    void testRenameMovesEntry() {
+        index.put(new ContactSnapshot(7, "Old Name", null, "7", 0L));
+        index.put(new ContactSnapshot(7, "New Name", null, "7", 1L));
+
+        assertTrue(index.complete("old", 10).isEmpty());
+        assertEquals(7, index.complete("new", 10).get(0).id());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testOlderSnapshotDoesNotReplaceNewer() {
+        index.put(new ContactSnapshot(7, "New Name", null, "7", 2L));
+        index.put(new ContactSnapshot(7, "Old Name", null, "7", 1L));
+
+        assertTrue(index.complete("old", 10).isEmpty());
+        assertEquals(7, index.complete("new", 10).get(0).id());
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        index.put(new ContactSnapshot(1, "Sara", null, "1", 0L));
+        index.put(new ContactSnapshot(2, "Sana", null, "2", 0L));
+        index.remove(1);
+        assertEquals(List.of(2), index.complete("sa", 10).stream().map(ContactSnapshot::id).toList());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.complete("", 10).isEmpty());
+    }
+}
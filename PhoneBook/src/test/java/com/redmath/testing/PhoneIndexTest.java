@@ -0,0 +1,50 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Model.ContactSnapshot;
+import org.redmath.Service.PhoneIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhoneIndexTest {
+
+    private final PhoneIndex index = new PhoneIndex();
+
+    @Test
+    void testExactAndSuffixMatch() {
+        index.rebuild(List.of(
+                new ContactSnapshot(1, "Talha", null, "923001234567", 0L),
+                new ContactSnapshot(2, "Ahmad", null, "03001234567", 0L),
+                new ContactSnapshot(3, "Sara", null, "923009999567", 0L)));
+
+        assertEquals(List.of(1), ids(index.findExact("+92 300 1234567")));
+        assertEquals(List.of(1, 2), ids(index.findBySuffix("3001234567")));
+        assertEquals(List.of(1, 2), ids(index.findBySuffix("1234567")));
+        assertTrue(index.findBySuffix("8881234567").isEmpty());
+    }
+
+    @Test
+    void testNumberChangeAndDelete() {
+        index.put(new ContactSnapshot(5, "Bilal", null, "5551234", 0L));
+        index.put(new ContactSnapshot(5, "Bilal", null, "5559876", 1L));
+
+        assertTrue(index.findExact("5551234").isEmpty());
+        assertEquals(List.of(5), ids(index.findExact("5559876")));
+
+        index.remove(5);
+        assertTrue(index.findBySuffix("5559876").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testSuffixLengthIsBounded() {
+        assertThrows(IllegalArgumentException.class, () -> index.findBySuffix("123456"));
+        assertThrows(IllegalArgumentException.class, () -> index.findBySuffix("12345678901"));
+    }
+
+    private static List<Integer> ids(List<ContactSnapshot> contacts) {
+        return contacts.stream().map(ContactSnapshot::id).sorted().toList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.redmath.Service.ListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+@WithMockUser
+public class PhoneLookupTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ListService listService;
+
+    @Autowired
+    private ContactRep contactRepo;
+
+    @Test
+    public void testLookupByExactNumberAndSuffix() throws Exception {
+        listService.addToBook(new Contact("Lookup Contact", "923001234567"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/lookup").param("number", "+92 300 1234567"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Lookup Contact"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/lookup")
+                        .param("number", "1234567").param("match", "suffix"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.name == 'Lookup Contact')]").exists());
+    }
+
+    @Test
+    public void testExactMissFallsBackToDatabase() throws Exception {
+        // Saved through the repository, so no change event reaches PhoneIndex
+        contactRepo.save(new Contact("Unindexed Contact", "923007654321"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/lookup").param("number", "923007654321"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Unindexed Contact"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.redmath.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.redmath.Main;
+import org.redmath.Service.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class RefreshTokenTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    public void testRefreshRotatesToken() throws Exception {
+        JsonNode login = login();
+        String first = login.get("refresh_token").asText();
+
+        JsonNode refreshed = read(refresh(first).andExpect(MockMvcResultMatchers.status().isOk()));
+        assertEquals("Bearer", refreshed.get("token_type").asText());
+        assertEquals("ahmad", refreshed.get("email").asText());
+        assertEquals(3600, refreshed.get("expires_in").asInt());
+        String second = refreshed.get("refresh_token").asText();
+        assertNotEquals(first, second);
+
+        // The new access token is accepted like one from /login
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/exportContacts")
+                        .header("Authorization", "Bearer " + refreshed.get("access_token").asText()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testReusedTokenRevokesFamily() throws Exception {
+        String first = login().get("refresh_token").asText();
+        String second = read(refresh(first)).get("refresh_token").asText();
+
+        // Replaying the rotated token looks like theft: it fails and so does its successor
+        refresh(first).andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("invalid_grant"));
+        refresh(second).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testRevokedTokenIsRejected() throws Exception {
+        String token = login().get("refresh_token").asText();
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/token/revoke")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED).param("refresh_token", token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        refresh(token).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testOldestFamilyIsRevokedPastTheCap() throws Exception {
+        var ahmad = new UsernamePasswordAuthenticationToken("ahmad", null, List.of());
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i <= 10; i++) {
+            tokens.add(tokenService.issue(ahmad).refreshToken());
+        }
+
+        refresh(tokens.get(0)).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        refresh(tokens.get(10)).andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testJsonBodyIsAccepted() throws Exception {
+        String token = login().get("refresh_token").asText();
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refresh_token", token))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.refresh_token").exists());
+    }
+
+    @Test
+    public void testTokenInQueryStringIsRejected() throws Exception {
+        String token = login().get("refresh_token").asText();
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/token/refresh?refresh_token=" + token)
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("invalid_request"));
+        // Refused before the lookup, so the token was not spent
+        refresh(token).andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testUnknownTokenIsRejected() throws Exception {
+        refresh("not-a-token").andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    private JsonNode login() throws Exception {
+        return read(mockMvc.perform(MockMvcRequestBuilders.post("/login")
+                        .with(csrf())
+                        .param("username", "ahmad")
+                        .param("password", "1234"))
+                .andExpect(MockMvcResultMatchers.status().isOk()));
+    }
+
+    private ResultActions refresh(String token) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/token/refresh")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED).param("refresh_token", token));
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,105 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.redmath.Config.SnapshotRestorer;
+import org.redmath.Main;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+public class SnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRestoreReplacesDatabase() throws Exception {
+        Path database = dir.resolve("book");
+        Path snapshot = dir.resolve("book.zip");
+        try (Connection db = open(database); Statement sql = db.createStatement()) {
+            sql.execute("CREATE TABLE contact(id INT PRIMARY KEY, name VARCHAR(50))");
+            sql.execute("INSERT INTO contact SELECT x, 'Contact ' || x FROM SYSTEM_RANGE(1, 5000)");
+            sql.execute("BACKUP TO '" + snapshot + "'");
+            // Changes made after the snapshot must not survive the restore
+            sql.execute("DELETE FROM contact WHERE id > 10");
+        }
+
+        SnapshotRestorer.restore(snapshot, database, "sa", "");
+
+        try (Connection db = open(database); Statement sql = db.createStatement();
+             ResultSet rows = sql.executeQuery("SELECT COUNT(*) FROM contact")) {
+            assertTrue(rows.next());
+            assertEquals(5000, rows.getInt(1));
+        }
+    }
+
+    @Test
+    void testMissingSnapshotFailsStartup() {
+        assertThrows(IllegalStateException.class,
+                () -> SnapshotRestorer.restore(dir.resolve("missing.zip"), dir.resolve("book"), "sa", ""));
+    }
+
+    @Test
+    void testCorruptSnapshotLeavesDatabaseAlone() throws Exception {
+        Path database = dir.resolve("book");
+        Path snapshot = dir.resolve("broken.zip");
+        try (Connection db = open(database); Statement sql = db.createStatement()) {
+            sql.execute("CREATE TABLE contact(id INT PRIMARY KEY, name VARCHAR(50))");
+            sql.execute("INSERT INTO contact SELECT x, 'Contact ' || x FROM SYSTEM_RANGE(1, 100)");
+            sql.execute("BACKUP TO '" + snapshot + "'");
+        }
+        byte[] zip = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(zip, zip.length / 2));
+
+        assertThrows(IllegalStateException.class, () -> SnapshotRestorer.restore(snapshot, database, "sa", ""));
+
+        try (Connection db = open(database); Statement sql = db.createStatement();
+             ResultSet rows = sql.executeQuery("SELECT COUNT(*) FROM contact")) {
+            assertTrue(rows.next());
+            assertEquals(100, rows.getInt(1));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().startsWith("book-restore")));
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSnapshotNeedsFileDatabase() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/admin/snapshot").with(csrf()))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSnapshotIsAdminOnly() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/admin/snapshot").with(csrf()))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    private static Connection open(Path database) throws Exception {
+        return DriverManager.getConnection("jdbc:h2:file:" + database.toAbsolutePath(), "sa", "");
+    }
+}
@@ -0,0 +1,52 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Model.ContactMatch;
+import org.redmath.Model.ContactSnapshot;
+import org.redmath.Service.TrigramIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void testMisspelledNameIsFound() {
+        index.rebuild(List.of(
+                new ContactSnapshot(1, "Muhammad Talha", "talha@example.com", "1", 0L),
+                new ContactSnapshot(2, "Ahmad Raza", "raza@example.com", "2", 0L),
+                new ContactSnapshot(3, "Sara Khan", "sara@example.com", "3", 0L)));
+
+        List<ContactMatch> hits = index.search("Muhamad Tala", 10);
+        assertFalse(hits.isEmpty());
+        assertEquals(1, hits.get(0).contact().id());
+    }
+
+    @Test
+    void testEmailIsSearchedAndBestScoreFirst() {
+        index.rebuild(List.of(
+                new ContactSnapshot(1, "Zed", "bilal.ahmed@example.com", "1", 0L),
+                new ContactSnapshot(2, "Bilal", null, "2", 0L)));
+
+        List<ContactMatch> hits = index.search("bilal", 10);
+        assertEquals(2, hits.get(0).contact().id());
+        assertEquals(1.0, hits.get(0).score(), 1e-9);
+        assertTrue(hits.stream().anyMatch(h -> h.contact().id() == 1));
+    }
+
+    @Test
+    void testUpdatesAreIncremental() {
+        index.put(new ContactSnapshot(4, "Fatima", null, "4", 0L));
+        index.put(new ContactSnapshot(4, "Ayesha", null, "4", 1L));
+
+        assertTrue(index.search("fatima", 10).isEmpty());
+        assertEquals(4, index.search("aysha", 10).get(0).contact().id());
+
+        index.remove(4);
+        assertTrue(index.search("ayesha", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
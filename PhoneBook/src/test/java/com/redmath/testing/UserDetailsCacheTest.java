@@ -0,0 +1,54 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.redmath.Config.CacheConfig;
+import org.redmath.Main;
+import org.redmath.Model.User;
+import org.redmath.Repository.UserRepo;
+import org.redmath.Service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class)
+public class UserDetailsCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void testCachedLookupReturnsFreshCopies() {
+        UserDetails first = userService.loadUserByUsername("ahmad");
+        UserDetails second = userService.loadUserByUsername("ahmad");
+
+        assertNotSame(first, second);
+        assertEquals(first.getPassword(), second.getPassword());
+        assertNotNull(cacheManager.getCache(CacheConfig.USERS).get("ahmad"));
+    }
+
+    @Test
+    void testDeleteEvictsCachedUser() {
+        User user = new User();
+        user.setUsername("cached-user");
+        user.setEmail("cached@example.com");
+        user.setPassword("secret");
+        user.setRole("ROLE_USER");
+        userService.save(user);
+
+        assertEquals("cached-user", userService.loadUserByUsername("cached-user").getUsername());
+
+        Long id = userRepo.findByUsername("cached-user").orElseThrow().getId();
+        assertTrue(userService.deleteUser(id));
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("cached-user"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.redmath.testing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.redmath.Main;
+import org.redmath.Model.Contact;
+import org.redmath.Repository.ContactRep;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares platform-thread and virtual-thread request handling under N concurrent
+ * connections, each looping on a database-backed page query. Off by default; run with
+ *
+ * <pre>mvn test -Dtest=VirtualThreadBenchmarkTest -Dbenchmark=virtual-threads
+ *     [-Dbenchmark.concurrency=1000,5000,10000] [-Dbenchmark.seconds=15]</pre>
+ *
+ * The OS open-file limit must allow two sockets per connection.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "virtual-threads")
+public class VirtualThreadBenchmarkTest {
+
+    private static final int SEED_ROWS = 10_000;
+
+    @Test
+    void testCompareThroughput() throws Exception {
+        int[] levels = Arrays.stream(System.getProperty("benchmark.concurrency", "1000,5000,10000").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.seconds", 15));
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %8s %12s %10s %10s %8s", "threads", "clients", "req/s", "p50 ms", "p99 ms", "errors"));
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext app = start(virtual)) {
+                int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+                seed(app.getBean(ContactRep.class));
+                for (int clients : levels) {
+                    Result result = run(port, clients, duration);
+                    report.add(String.format("%-9s %8d %12.0f %10.2f %10.2f %8d", virtual ? "virtual" : "platform",
+                            clients, result.throughput(), result.p50(), result.p99(), result.errors()));
+                }
+            }
+        }
+        System.out.println(String.join("\n", report));
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(Main.class).run(
+                "--server.port=0",
+                "--dburl=jdbc:h2:mem:bench-" + (virtual ? "virtual" : "platform"),
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--phonebook.virtual-threads.pinning-monitor.enabled=" + virtual,
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=2000",
+                // Every request must reach the database for the comparison to mean anything
+                "--phonebook.cache.contacts.max-rows=0",
+                "--spring.jpa.show-sql=false");
+    }
+
+    private static void seed(ContactRep repo) {
+        List<Contact> batch = new ArrayList<>();
+        for (int i = 0; i < SEED_ROWS; i++) {
+            batch.add(new Contact("Bench Contact", String.valueOf(1_000_000 + i)));
+            if (batch.size() == 1000) {
+                repo.saveAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static Result run(int port, int clients, Duration duration) throws Exception {
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(workers)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                futures.add(workers.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        // Vary the page size so consecutive requests are not identical queries
+                        URI uri = URI.create("http://localhost:" + port + "/api/contacts?limit="
+                                + (10 + (offset + count) % 41));
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(HttpRequest.newBuilder(uri).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            List<long[]> parts = new ArrayList<>(clients);
+            for (Future<long[]> future : futures) {
+                parts.add(future.get());
+            }
+            long[] all = new long[parts.stream().mapToInt(part -> part.length).sum()];
+            int filled = 0;
+            for (long[] part : parts) {
+                System.arraycopy(part, 0, all, filled, part.length);
+                filled += part.length;
+            }
+            Arrays.sort(all);
+            return new Result(all.length / (double) duration.toSeconds(),
+                    percentile(all, 0.50), percentile(all, 0.99), errors.sum());
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+    }
+
+    private record Result(double throughput, double p50, double p99, long errors) {
+    }
+}